@@ -0,0 +1,2 @@
+-- Runs once, as the superuser, when the postgres container initializes an empty data directory.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
@@ -0,0 +1,103 @@
+package com.geml.taska.benchmark;
+
+import com.geml.taska.dto.DisplayNotebookFullDto;
+import com.geml.taska.dto.DisplayTagDto;
+import com.geml.taska.dto.DisplayTaskDto;
+import com.geml.taska.service.NotebookFullAssembler;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Replays 1M synthetic rows of the full-notebook join through the former
+ * {@code HashMap}-based assembly and through {@link NotebookFullAssembler}.
+ * Run with {@code ./gradlew jmh}; the gc profiler reports the allocation rate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class NotebookAssemblyBenchmark {
+
+    private static final int ROWS = 1_000_000;
+    private static final int TAGS_PER_NOTEBOOK = 4;
+    private static final int TASKS = 1_000;
+    private static final int TAGS = 200;
+
+    private List<Object[]> rows;
+
+    @Setup
+    public void setUp() {
+        rows = new ArrayList<>(ROWS);
+        String content = "x".repeat(256);
+        for (int i = 0; i < ROWS; i++) {
+            long notebookId = i / TAGS_PER_NOTEBOOK + 1L;
+            long tagId = (notebookId * 7 + i % TAGS_PER_NOTEBOOK) % TAGS + 1;
+            long taskId = notebookId % TASKS + 1;
+            rows.add(new Object[] {
+                notebookId, "Notebook " + notebookId, content, tagId, "tag-" + tagId, taskId, "Task " + taskId
+            });
+        }
+    }
+
+    @Benchmark
+    public List<DisplayNotebookFullDto> legacy() {
+        return legacyProcessResults(rows);
+    }
+
+    @Benchmark
+    public List<DisplayNotebookFullDto> ordered() {
+        return NotebookFullAssembler.assemble(rows);
+    }
+
+    private static List<DisplayNotebookFullDto> legacyProcessResults(List<Object[]> results) {
+        Map<Long, DisplayNotebookFullDto> notebookMap = new HashMap<>();
+        Map<Long, Set<DisplayTagDto>> tags = new HashMap<>();
+
+        for (Object[] row : results) {
+            Long notebookId = ((Number) row[0]).longValue();
+            String notebookTitle = (String) row[1];
+            String notebookContent = (String) row[2];
+            Long tagId = row[3] != null ? ((Number) row[3]).longValue() : null;
+            String tagName = (String) row[4];
+            Long taskId = row[5] != null ? ((Number) row[5]).longValue() : null;
+            String taskTitle = (String) row[6];
+
+            notebookMap.computeIfAbsent(notebookId, id -> {
+                DisplayNotebookFullDto dto = new DisplayNotebookFullDto();
+                dto.setId(notebookId);
+                dto.setTitle(notebookTitle);
+                dto.setContent(notebookContent);
+                tags.put(notebookId, new HashSet<>());
+                return dto;
+            });
+
+            DisplayNotebookFullDto notebookDto = notebookMap.get(notebookId);
+            if (tagId != null) {
+                DisplayTagDto tagDto = new DisplayTagDto();
+                tagDto.setId(tagId);
+                tagDto.setName(tagName);
+                tags.get(notebookId).add(tagDto);
+            }
+            if (taskId != null) {
+                DisplayTaskDto taskDto = new DisplayTaskDto();
+                taskDto.setId(taskId);
+                taskDto.setTitle(taskTitle);
+                notebookDto.setTask(taskDto);
+            }
+        }
+
+        notebookMap.forEach((id, notebook) -> notebook.setTags(new ArrayList<>(tags.get(id))));
+        return new ArrayList<>(notebookMap.values());
+    }
+}
@@ -0,0 +1,101 @@
+package com.geml.taska.benchmark;
+
+import com.geml.taska.dto.VisitDto;
+import com.geml.taska.repository.VisitRepository;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Compares the former synchronized find-then-save visit counter with the
+ * {@link VisitRepository} striped counters. Run with {@code ./gradlew jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class VisitCounterBenchmark {
+
+    private static final String[] URLS = {
+        "GET /api/notebooks", "GET /api/tasks", "GET /api/tags", "GET /api/boards",
+        "GET /api/users", "GET /api/visits/count", "GET /api/notebooks/all", "GET /api/notebooks/{id}"
+    };
+
+    private LegacyVisitCounter legacyCounter;
+    private VisitRepository stripedCounter;
+
+    @Setup
+    public void setUp() {
+        legacyCounter = new LegacyVisitCounter();
+        stripedCounter = new VisitRepository(1000);
+    }
+
+    private static String nextUrl() {
+        return URLS[ThreadLocalRandom.current().nextInt(URLS.length)];
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void legacyThreads1() {
+        legacyCounter.incrementVisit(nextUrl());
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void legacyThreads8() {
+        legacyCounter.incrementVisit(nextUrl());
+    }
+
+    @Benchmark
+    @Threads(64)
+    public void legacyThreads64() {
+        legacyCounter.incrementVisit(nextUrl());
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void stripedThreads1() {
+        stripedCounter.increment(nextUrl());
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void stripedThreads8() {
+        stripedCounter.increment(nextUrl());
+    }
+
+    @Benchmark
+    @Threads(64)
+    public void stripedThreads64() {
+        stripedCounter.increment(nextUrl());
+    }
+
+    static final class LegacyVisitCounter {
+        private final Map<String, VisitDto> visitMap = new ConcurrentHashMap<>();
+
+        synchronized void incrementVisit(String url) {
+            VisitDto visitDto = Optional.ofNullable(visitMap.get(url))
+                .orElseGet(() -> {
+                    VisitDto newVisitDto = new VisitDto();
+                    newVisitDto.setRoute(url);
+                    newVisitDto.setVisitCount(0);
+                    return newVisitDto;
+                });
+            visitDto.setVisitCount(visitDto.getVisitCount() + 1);
+            save(visitDto);
+        }
+
+        private synchronized void save(VisitDto visitDto) {
+            visitMap.put(visitDto.getRoute(), visitDto);
+        }
+    }
+}
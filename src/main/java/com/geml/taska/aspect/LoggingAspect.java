@@ -15,7 +15,8 @@ import org.springframework.stereotype.Component;
 @Slf4j
 public class LoggingAspect {
 
-    @Pointcut("within(com.geml.taska.controllers..*) || within(com.geml.taska.service..*)")
+    @Pointcut("(within(com.geml.taska.controllers..*) || within(com.geml.taska.service..*))"
+        + " && !execution(* com.geml.taska.service.VisitService.recordVisit(..))")
     public void applicationPackagePointcut() {
     }
 
@@ -2,50 +2,211 @@ package com.geml.taska.config;
 
 import com.geml.taska.dto.DisplayNotebookDto;
 import com.geml.taska.dto.DisplayNotebookFullDto;
+import com.geml.taska.dto.DisplayTagDto;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 
 @Slf4j
 @Component
 public class CacheConfig {
-    private static final int MAX_NOTEBOOKS_CACHE_SIZE = 100;
-    private static final String ALL_NOTEBOOKS_CACHE_KEY = "allNotebooks";
-    private static final String ALL_NOTEBOOKS_FULL_CACHE_KEY = "allNotebooksFull";
+    public static final String NOTEBOOKS_CACHE = "notebooks";
+    public static final String NOTEBOOKS_BY_TASK_CACHE = "notebooksByTask";
+    public static final String NOTEBOOKS_FULL_CACHE = "notebooksFull";
+    public static final String ALL_NOTEBOOKS_DEPENDENCY = "notebooks";
+    private static final String TAG_FILTER_DEPENDENCY_PREFIX = "tagFilter:";
+    private static final long OBJECT_OVERHEAD_BYTES = 48;
+    private static final long REFERENCE_BYTES = 8;
 
-    private final LruCache<String, List<DisplayNotebookDto>> allNotebooksCache = 
-        new LruCache<>(MAX_NOTEBOOKS_CACHE_SIZE);
-    private final LruCache<String, List<DisplayNotebookFullDto>> allNotebooksFullCache = 
-        new LruCache<>(MAX_NOTEBOOKS_CACHE_SIZE);
+    private final LruCache<Long, DisplayNotebookDto> notebookCache;
+    private final DependencyCache<Long, List<DisplayNotebookDto>> notebooksByTaskCache;
+    private final DependencyCache<String, List<DisplayNotebookFullDto>> notebooksFullCache;
+    private final AtomicLong notebookVersion = new AtomicLong();
 
-    public List<DisplayNotebookDto> getAllNotebooks() {
-        log.debug("Запрос к кэшу всех notebooks");
-        return allNotebooksCache.get(ALL_NOTEBOOKS_CACHE_KEY);
+    public CacheConfig(
+        @Value("${cache.notebooks.max-weight-bytes:67108864}") long maxWeightBytes,
+        @Value("${cache.notebooks.expire-after-write:10m}") Duration expireAfterWrite
+    ) {
+        this.notebookCache = new LruCache<>(
+            maxWeightBytes, expireAfterWrite, CacheConfig::estimateNotebookWeight);
+        this.notebooksByTaskCache = new DependencyCache<>(
+            maxWeightBytes, expireAfterWrite, CacheConfig::estimateNotebooksWeight);
+        this.notebooksFullCache = new DependencyCache<>(
+            maxWeightBytes, expireAfterWrite, CacheConfig::estimateNotebooksFullWeight);
     }
 
-    public void putAllNotebooks(List<DisplayNotebookDto> notebooks) {
-        log.debug("Добавление всех notebooks в кэш");
-        allNotebooksCache.put(ALL_NOTEBOOKS_CACHE_KEY, notebooks);
+    /**
+     * Version of the notebook cache, bumped by every write-through or eviction.
+     * Batch loaders read it before querying the database and pass it back when
+     * caching, so a result that raced a mutation is not cached.
+     */
+    public long getNotebookVersion() {
+        return notebookVersion.get();
+    }
+
+    public DisplayNotebookDto getNotebook(Long id) {
+        return notebookCache.get(id);
+    }
+
+    public DisplayNotebookDto getNotebook(Long id, Function<Long, DisplayNotebookDto> loader) {
+        return notebookCache.get(id, loader);
+    }
+
+    public void putNotebook(DisplayNotebookDto notebook) {
+        log.debug("Добавление notebook {} в кэш", notebook.getId());
+        notebookVersion.incrementAndGet();
+        notebookCache.put(notebook.getId(), notebook);
+    }
+
+    public void putNotebooks(List<DisplayNotebookDto> notebooks, long expectedVersion) {
+        if (notebookVersion.get() != expectedVersion) {
+            log.debug("Notebook кэш изменился во время загрузки, пропуск");
+            return;
+        }
+        notebooks.forEach(notebook -> notebookCache.put(notebook.getId(), notebook));
+    }
+
+    public void removeNotebooks(Collection<Long> ids) {
+        log.debug("Удаление notebooks {} из кэша", ids);
+        notebookVersion.incrementAndGet();
+        ids.forEach(notebookCache::remove);
     }
 
     public void removeAllNotebooks() {
         log.debug("Удаление всех notebooks из кэша");
-        allNotebooksCache.remove(ALL_NOTEBOOKS_CACHE_KEY);
+        notebookVersion.incrementAndGet();
+        notebookCache.clear();
+    }
+
+    public List<DisplayNotebookDto> getNotebooksByTask(
+        Long taskId,
+        Function<Long, List<DisplayNotebookDto>> loader,
+        Function<List<DisplayNotebookDto>, Set<String>> dependencies
+    ) {
+        return notebooksByTaskCache.get(taskId, loader, dependencies);
+    }
+
+    public List<DisplayNotebookFullDto> getNotebooksFull(
+        String key,
+        Function<String, List<DisplayNotebookFullDto>> loader,
+        Function<List<DisplayNotebookFullDto>, Set<String>> dependencies
+    ) {
+        log.debug("Запрос к кэшу notebooks full {}", key);
+        return notebooksFullCache.get(key, loader, dependencies);
+    }
+
+    public void removeNotebookDependents(Collection<String> dependencies) {
+        log.debug("Удаление из кэша записей, зависящих от {}", dependencies);
+        notebooksByTaskCache.invalidate(dependencies);
+        notebooksFullCache.invalidate(dependencies);
+    }
+
+    /**
+     * Evicts tag-filtered views whose filter matches the given tag name, the
+     * same way the query does: a case-insensitive substring match.
+     */
+    public void removeTagFilterDependents(String tagName) {
+        if (tagName == null) {
+            return;
+        }
+        String name = tagName.toLowerCase(Locale.ROOT);
+        notebooksFullCache.invalidateMatching(dependency ->
+            dependency.startsWith(TAG_FILTER_DEPENDENCY_PREFIX)
+                && name.contains(dependency.substring(TAG_FILTER_DEPENDENCY_PREFIX.length())));
+    }
+
+    public void removeAllNotebookViews() {
+        log.debug("Удаление всех представлений notebooks из кэша");
+        notebooksByTaskCache.clear();
+        notebooksFullCache.clear();
+    }
+
+    public Map<String, LruCache<?, ?>> getCaches() {
+        Map<String, LruCache<?, ?>> caches = new LinkedHashMap<>();
+        caches.put(NOTEBOOKS_CACHE, notebookCache);
+        caches.put(NOTEBOOKS_BY_TASK_CACHE, notebooksByTaskCache.getCache());
+        caches.put(NOTEBOOKS_FULL_CACHE, notebooksFullCache.getCache());
+        return caches;
+    }
+
+    public void clearCache(String name) {
+        switch (name) {
+            case NOTEBOOKS_CACHE -> removeAllNotebooks();
+            case NOTEBOOKS_BY_TASK_CACHE -> notebooksByTaskCache.clear();
+            case NOTEBOOKS_FULL_CACHE -> notebooksFullCache.clear();
+            default -> throw new IllegalArgumentException("Unknown cache: " + name);
+        }
+    }
+
+    public static String taskDependency(Long taskId) {
+        return "task:" + taskId;
+    }
+
+    public static String tagDependency(Long tagId) {
+        return "tag:" + tagId;
+    }
+
+    public static String notebookDependency(Long notebookId) {
+        return "notebook:" + notebookId;
+    }
+
+    public static String tagFilterDependency(String tagFilter) {
+        return TAG_FILTER_DEPENDENCY_PREFIX + tagFilter.toLowerCase(Locale.ROOT);
+    }
+
+    static long estimateNotebooksWeight(List<DisplayNotebookDto> notebooks) {
+        long weight = OBJECT_OVERHEAD_BYTES;
+        for (DisplayNotebookDto notebook : notebooks) {
+            weight += estimateNotebookWeight(notebook);
+        }
+        return weight;
+    }
+
+    static long estimateNotebookWeight(DisplayNotebookDto notebook) {
+        long weight = OBJECT_OVERHEAD_BYTES + REFERENCE_BYTES
+            + estimateStringWeight(notebook.getTitle())
+            + estimateStringWeight(notebook.getContent());
+        if (notebook.getTagIds() != null) {
+            weight += OBJECT_OVERHEAD_BYTES * (notebook.getTagIds().size() + 1L);
+        }
+        return weight;
     }
 
-    public List<DisplayNotebookFullDto> getAllNotebooksFull() {
-        log.debug("Запрос к кэшу всех notebooks full");
-        return allNotebooksFullCache.get(ALL_NOTEBOOKS_FULL_CACHE_KEY);
+    static long estimateNotebooksFullWeight(List<DisplayNotebookFullDto> notebooks) {
+        long weight = OBJECT_OVERHEAD_BYTES;
+        for (DisplayNotebookFullDto notebook : notebooks) {
+            weight += estimateNotebookFullWeight(notebook);
+        }
+        return weight;
     }
 
-    public void putAllNotebooksFull(List<DisplayNotebookFullDto> notebooksFull) {
-        log.debug("Добавление всех notebooks full в кэш");
-        allNotebooksFullCache.put(ALL_NOTEBOOKS_FULL_CACHE_KEY, notebooksFull);
+    static long estimateNotebookFullWeight(DisplayNotebookFullDto notebook) {
+        long weight = OBJECT_OVERHEAD_BYTES + REFERENCE_BYTES
+            + estimateStringWeight(notebook.getTitle())
+            + estimateStringWeight(notebook.getContent());
+        if (notebook.getTask() != null) {
+            weight += OBJECT_OVERHEAD_BYTES + estimateStringWeight(notebook.getTask().getTitle());
+        }
+        if (notebook.getTags() != null) {
+            weight += OBJECT_OVERHEAD_BYTES;
+            for (DisplayTagDto tag : notebook.getTags()) {
+                weight += OBJECT_OVERHEAD_BYTES + estimateStringWeight(tag.getName());
+            }
+        }
+        return weight;
     }
 
-    public void removeAllNotebooksFull() {
-        log.debug("Удаление всех notebooks full из кэша");
-        allNotebooksFullCache.remove(ALL_NOTEBOOKS_FULL_CACHE_KEY);
+    private static long estimateStringWeight(String value) {
+        return value == null ? 0 : OBJECT_OVERHEAD_BYTES + 2L * value.length();
     }
 }
@@ -0,0 +1,57 @@
+package com.geml.taska.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.concurrent.TimeUnit;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes {@link LruCache} statistics under the meter names Micrometer uses
+ * for its own cache binders, tagged with the cache name.
+ */
+@Component
+public class CacheMetricsConfig implements MeterBinder {
+
+    private final CacheConfig cacheConfig;
+
+    public CacheMetricsConfig(CacheConfig cacheConfig) {
+        this.cacheConfig = cacheConfig;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        cacheConfig.getCaches().forEach((name, cache) -> {
+            FunctionCounter.builder("cache.gets", cache, LruCache::getHitCount)
+                .tag("cache", name).tag("result", "hit")
+                .description("Number of cache lookups that returned a value")
+                .register(registry);
+            FunctionCounter.builder("cache.gets", cache, LruCache::getMissCount)
+                .tag("cache", name).tag("result", "miss")
+                .description("Number of cache lookups that found nothing")
+                .register(registry);
+            FunctionCounter.builder("cache.evictions", cache, LruCache::getEvictionCount)
+                .tag("cache", name)
+                .description("Number of entries evicted for weight or expiry")
+                .register(registry);
+            FunctionTimer.builder("cache.load.duration", cache,
+                    LruCache::getLoadCount, LruCache::getTotalLoadTimeNanos, TimeUnit.NANOSECONDS)
+                .tag("cache", name)
+                .description("Time spent loading values on a miss")
+                .register(registry);
+            Gauge.builder("cache.size", cache, LruCache::size)
+                .tag("cache", name)
+                .description("Number of cached entries")
+                .register(registry);
+            Gauge.builder("cache.weight", cache, LruCache::getWeight)
+                .tag("cache", name).baseUnit("bytes")
+                .description("Estimated weight of cached entries")
+                .register(registry);
+            Gauge.builder("cache.maximum.weight", cache, LruCache::getMaximumWeight)
+                .tag("cache", name).baseUnit("bytes")
+                .register(registry);
+        });
+    }
+}
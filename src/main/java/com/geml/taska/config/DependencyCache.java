@@ -0,0 +1,146 @@
+package com.geml.taska.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+/**
+ * {@link LruCache} whose entries record the dependencies they were built
+ * from, so a write can evict exactly the entries that depend on what it
+ * changed.
+ *
+ * <p>Reads never lock. Linking a loaded entry and invalidating dependencies
+ * are serialized on one lock, which the underlying cache never holds while it
+ * calls back. Every invalidation bumps a generation and abandons running
+ * loads, so an entry loaded across an invalidation is not cached.
+ */
+public class DependencyCache<K, V> {
+
+    private final LruCache<K, V> cache;
+    private final Map<String, Set<K>> dependents = new HashMap<>();
+    private final Map<K, Entry<V>> entries = new HashMap<>();
+    private final Object lock = new Object();
+    private volatile long generation;
+
+    public DependencyCache(long maximumWeight, Duration expireAfterWrite, ToLongFunction<? super V> weigher) {
+        this.cache = new LruCache<>(maximumWeight, expireAfterWrite, weigher, this::unlink);
+    }
+
+    public V get(K key) {
+        return cache.get(key);
+    }
+
+    /**
+     * Returns the cached value or loads it through the underlying cache, so
+     * concurrent misses share one load. The dependencies of the loaded value
+     * are linked before it is installed.
+     */
+    public V get(
+        K key,
+        Function<? super K, ? extends V> loader,
+        Function<? super V, ? extends Collection<String>> dependencies
+    ) {
+        return cache.get(key, k -> {
+            long expectedGeneration = generation;
+            V loaded = loader.apply(k);
+            if (loaded != null) {
+                link(k, loaded, dependencies.apply(loaded), expectedGeneration);
+            }
+            return loaded;
+        });
+    }
+
+    private void link(K key, V value, Collection<String> dependencies, long expectedGeneration) {
+        synchronized (lock) {
+            if (generation != expectedGeneration) {
+                return;
+            }
+            Entry<V> previous = entries.remove(key);
+            if (previous != null) {
+                unlinkDependencies(key, previous);
+            }
+            Entry<V> entry = new Entry<>(value, Set.copyOf(dependencies));
+            entries.put(key, entry);
+            for (String dependency : entry.dependencies) {
+                dependents.computeIfAbsent(dependency, d -> new HashSet<>()).add(key);
+            }
+        }
+    }
+
+    public void invalidate(Collection<String> dependencies) {
+        invalidateMatching(dependencies::contains);
+    }
+
+    public void invalidateMatching(Predicate<String> dependency) {
+        List<K> keys = new ArrayList<>();
+        synchronized (lock) {
+            generation++;
+            cache.abandonLoads();
+            dependents.forEach((name, dependentKeys) -> {
+                if (dependency.test(name)) {
+                    keys.addAll(dependentKeys);
+                }
+            });
+            for (K key : keys) {
+                Entry<V> entry = entries.remove(key);
+                if (entry != null) {
+                    unlinkDependencies(key, entry);
+                }
+                cache.remove(key);
+            }
+        }
+    }
+
+    public void clear() {
+        synchronized (lock) {
+            generation++;
+            entries.clear();
+            dependents.clear();
+            cache.clear();
+        }
+    }
+
+    LruCache<K, V> getCache() {
+        return cache;
+    }
+
+    private void unlink(K key, V value) {
+        synchronized (lock) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null && entry.value == value) {
+                entries.remove(key);
+                unlinkDependencies(key, entry);
+            }
+        }
+    }
+
+    private void unlinkDependencies(K key, Entry<V> entry) {
+        for (String dependency : entry.dependencies) {
+            Set<K> keys = dependents.get(dependency);
+            if (keys != null) {
+                keys.remove(key);
+                if (keys.isEmpty()) {
+                    dependents.remove(dependency);
+                }
+            }
+        }
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final Set<String> dependencies;
+
+        private Entry(V value, Set<String> dependencies) {
+            this.value = value;
+            this.dependencies = dependencies;
+        }
+    }
+}
@@ -0,0 +1,276 @@
+package com.geml.taska.config;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index from terms to the ids of the documents that
+ * contain them.
+ *
+ * <p>Each posting list is a sorted, growable {@code long[]} of entity ids, so
+ * matching and intersecting never box ids. Terms live in a sorted dictionary,
+ * which turns a prefix lookup into a range scan. A query term matches every
+ * term it is a prefix of; only when it matches none does it fall back to
+ * terms within a small edit distance. Those candidates are limited to the
+ * terms that share its first character, the same range scan, so typos after
+ * the first letter are forgiven without scanning the whole dictionary. All
+ * terms of a query must match.
+ *
+ * <p>Documents are tokenized outside the lock. Updates take a write lock and
+ * queries a read lock.
+ */
+public class InvertedIndex {
+    private static final long[] EMPTY = new long[0];
+
+    private final TreeMap<String, Postings> terms = new TreeMap<>();
+    private final Map<Long, Postings[]> documents = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public void put(long id, String... fields) {
+        Set<String> documentTerms = tokenize(fields);
+        lock.writeLock().lock();
+        try {
+            removeDocument(id);
+            Postings[] postings = new Postings[documentTerms.size()];
+            int i = 0;
+            for (String term : documentTerms) {
+                Postings termPostings = terms.computeIfAbsent(term, Postings::new);
+                termPostings.add(id);
+                postings[i++] = termPostings;
+            }
+            documents.put(id, postings);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns, in ascending order, at most {@code limit} ids greater than
+     * {@code afterId} of the documents matching every term of the query.
+     */
+    public long[] search(String query, long afterId, int limit) {
+        Set<String> queryTerms = tokenize(query);
+        if (queryTerms.isEmpty()) {
+            return EMPTY;
+        }
+        long[] result = null;
+        lock.readLock().lock();
+        try {
+            for (String term : queryTerms) {
+                long[] matches = match(term);
+                result = result == null ? matches : intersect(result, matches);
+                if (result.length == 0) {
+                    return EMPTY;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        int from = Arrays.binarySearch(result, afterId);
+        from = from >= 0 ? from + 1 : -from - 1;
+        return Arrays.copyOfRange(result, from, Math.min(result.length, from + limit));
+    }
+
+    private void removeDocument(long id) {
+        Postings[] previous = documents.remove(id);
+        if (previous == null) {
+            return;
+        }
+        for (Postings postings : previous) {
+            postings.remove(id);
+            if (postings.size == 0) {
+                terms.remove(postings.term);
+            }
+        }
+    }
+
+    private long[] match(String term) {
+        List<Postings> matched = new ArrayList<>(prefixed(term).values());
+        int maxEdits = maxEdits(term);
+        if (matched.isEmpty() && maxEdits > 0) {
+            for (Postings postings : prefixed(term.substring(0, term.offsetByCodePoints(0, 1))).values()) {
+                if (Math.abs(postings.term.length() - term.length()) <= maxEdits
+                    && withinEditDistance(term, postings.term, maxEdits)) {
+                    matched.add(postings);
+                }
+            }
+        }
+        return union(matched);
+    }
+
+    private Map<String, Postings> prefixed(String prefix) {
+        return terms.subMap(prefix, true, prefix + Character.MAX_VALUE, true);
+    }
+
+    private static int maxEdits(String term) {
+        if (term.length() < 4) {
+            return 0;
+        }
+        return term.length() < 8 ? 1 : 2;
+    }
+
+    /**
+     * Levenshtein distance check that gives up as soon as a whole row of the
+     * distance matrix exceeds {@code maxEdits}.
+     */
+    static boolean withinEditDistance(String a, String b, int maxEdits) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMinimum = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int substitution = previous[j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+                rowMinimum = Math.min(rowMinimum, current[j]);
+            }
+            if (rowMinimum > maxEdits) {
+                return false;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()] <= maxEdits;
+    }
+
+    private static long[] union(List<Postings> lists) {
+        if (lists.isEmpty()) {
+            return EMPTY;
+        }
+        if (lists.size() == 1) {
+            return Arrays.copyOf(lists.get(0).ids, lists.get(0).size);
+        }
+        int total = 0;
+        for (Postings postings : lists) {
+            total += postings.size;
+        }
+        long[] all = new long[total];
+        int offset = 0;
+        for (Postings postings : lists) {
+            System.arraycopy(postings.ids, 0, all, offset, postings.size);
+            offset += postings.size;
+        }
+        Arrays.sort(all);
+        int distinct = 0;
+        for (int i = 0; i < all.length; i++) {
+            if (i == 0 || all[i] != all[i - 1]) {
+                all[distinct++] = all[i];
+            }
+        }
+        return Arrays.copyOf(all, distinct);
+    }
+
+    private static long[] intersect(long[] a, long[] b) {
+        long[] result = new long[Math.min(a.length, b.length)];
+        int size = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                result[size++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    static Set<String> tokenize(String... fields) {
+        Set<String> tokens = new LinkedHashSet<>();
+        StringBuilder token = new StringBuilder();
+        for (String field : fields) {
+            if (field == null) {
+                continue;
+            }
+            String lower = field.toLowerCase(Locale.ROOT);
+            for (int i = 0; i < lower.length(); ) {
+                int codePoint = lower.codePointAt(i);
+                if (Character.isLetterOrDigit(codePoint)) {
+                    token.appendCodePoint(codePoint);
+                } else if (!token.isEmpty()) {
+                    tokens.add(token.toString());
+                    token.setLength(0);
+                }
+                i += Character.charCount(codePoint);
+            }
+            if (!token.isEmpty()) {
+                tokens.add(token.toString());
+                token.setLength(0);
+            }
+        }
+        return tokens;
+    }
+
+    private static final class Postings {
+        private final String term;
+        private long[] ids = new long[2];
+        private int size;
+
+        private Postings(String term) {
+            this.term = term;
+        }
+
+        private void add(long id) {
+            if (size > 0 && ids[size - 1] >= id) {
+                int position = Arrays.binarySearch(ids, 0, size, id);
+                if (position >= 0) {
+                    return;
+                }
+                insert(-position - 1, id);
+                return;
+            }
+            insert(size, id);
+        }
+
+        private void insert(int position, long id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size + (size >> 1) + 1);
+            }
+            System.arraycopy(ids, position, ids, position + 1, size - position);
+            ids[position] = id;
+            size++;
+        }
+
+        private void remove(long id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) {
+                System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+                size--;
+            }
+        }
+    }
+}
@@ -1,58 +1,396 @@
 package com.geml.taska.config;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
 
-
+/**
+ * Concurrent, weight-bounded cache with expire-after-write.
+ *
+ * <p>Values live in a {@link ConcurrentHashMap}, so reads never block. Recency
+ * is tracked per segment in an access-ordered {@link LinkedHashMap}; a read
+ * only reorders its segment when the segment lock is free, otherwise the
+ * access is dropped, as with a lossy read buffer. When the total weight goes
+ * over the limit, segments give up their least recently used entries in
+ * round-robin order. An optional removal listener is told about every
+ * entry that is removed, evicted or expires, after the segment lock has been
+ * released; replacing a value does not notify it.
+ *
+ * <p>Hits, misses, evictions and loads are counted in {@link LongAdder}s, so
+ * recording statistics adds no locking to reads.
+ */
 public class LruCache<K, V> {
-    private final Map<K, V> cache;
-    private final ReentrantLock lock = new ReentrantLock();
+    private static final int SEGMENT_COUNT = 16;
+
+    private final ConcurrentHashMap<K, Node<V>> data = new ConcurrentHashMap<>();
+    private final List<Segment<K, V>> segments = new ArrayList<>(SEGMENT_COUNT);
+    private final ToLongFunction<? super V> weigher;
+    private final BiConsumer<? super K, ? super V> removalListener;
+    private final long expireAfterWriteNanos;
+    private final AtomicLong totalWeight = new AtomicLong();
+    private final AtomicInteger evictionCursor = new AtomicInteger();
+    private final ConcurrentHashMap<K, CompletableFuture<V>> loading = new ConcurrentHashMap<>();
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+    private final LongAdder loadCount = new LongAdder();
+    private final LongAdder totalLoadTimeNanos = new LongAdder();
+    private volatile long maximumWeight;
 
     public LruCache(int maxSize) {
-        this.cache = new LinkedHashMap<>(maxSize, 0.75f, true) {
-            @Override
-            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
-                return size() > maxSize;
-            }
-        };
+        this(maxSize, Duration.ZERO, value -> 1);
+    }
+
+    public LruCache(long maximumWeight, Duration expireAfterWrite, ToLongFunction<? super V> weigher) {
+        this(maximumWeight, expireAfterWrite, weigher, null);
+    }
+
+    public LruCache(
+        long maximumWeight,
+        Duration expireAfterWrite,
+        ToLongFunction<? super V> weigher,
+        BiConsumer<? super K, ? super V> removalListener
+    ) {
+        if (maximumWeight <= 0) {
+            throw new IllegalArgumentException("Maximum weight must be positive");
+        }
+        this.maximumWeight = maximumWeight;
+        this.expireAfterWriteNanos = expireAfterWrite.toNanos();
+        this.weigher = weigher;
+        this.removalListener = removalListener;
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            segments.add(new Segment<>());
+        }
     }
 
     public V get(K key) {
-        lock.lock();
+        Node<V> node = data.get(key);
+        if (node == null) {
+            missCount.increment();
+            return null;
+        }
+        Segment<K, V> segment = segmentFor(key);
+        if (isExpired(node, System.nanoTime())) {
+            missCount.increment();
+            boolean removed;
+            segment.lock.lock();
+            try {
+                removed = removeIfSame(segment, key, node);
+            } finally {
+                segment.lock.unlock();
+            }
+            if (removed) {
+                evictionCount.increment();
+                notifyRemoval(key, node);
+            }
+            return null;
+        }
+        if (segment.lock.tryLock()) {
+            try {
+                segment.accessOrder.get(key);
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+        hitCount.increment();
+        return node.value;
+    }
+
+    /**
+     * Returns the cached value without recording a hit or miss or touching
+     * the recency order.
+     */
+    V peek(K key) {
+        Node<V> node = data.get(key);
+        return node == null || isExpired(node, System.nanoTime()) ? null : node.value;
+    }
+
+    /**
+     * Returns the cached value or loads it. Concurrent misses on the same key
+     * share one load: the first caller runs the loader and the others wait for
+     * its result. A write, removal or clear of the key while it is loading
+     * abandons the load, so its possibly stale result is returned to the
+     * waiting callers but not cached.
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        V value = get(key);
+        if (value != null) {
+            return value;
+        }
+        CompletableFuture<V> future = new CompletableFuture<>();
+        CompletableFuture<V> running = loading.putIfAbsent(key, future);
+        if (running != null) {
+            return await(running);
+        }
+        V installed = peek(key);
+        if (installed != null) {
+            loading.remove(key, future);
+            future.complete(installed);
+            return installed;
+        }
+        long start = System.nanoTime();
+        V loaded;
         try {
-            return cache.get(key);
-        } finally {
-            lock.unlock();
+            loaded = loader.apply(key);
+        } catch (RuntimeException | Error e) {
+            loading.remove(key, future);
+            future.completeExceptionally(e);
+            throw e;
+        }
+        recordLoad(System.nanoTime() - start);
+        if (loaded != null) {
+            install(key, loaded, future);
+        } else {
+            loading.remove(key, future);
         }
+        future.complete(loaded);
+        return loaded;
     }
 
     public void put(K key, V value) {
-        lock.lock();
+        install(key, value, null);
+    }
+
+    private void install(K key, V value, CompletableFuture<V> load) {
+        Node<V> node = new Node<>(value, Math.max(0, weigher.applyAsLong(value)), System.nanoTime());
+        Segment<K, V> segment = segmentFor(key);
+        segment.lock.lock();
         try {
-            cache.put(key, value);
+            if (load != null && loading.get(key) != load) {
+                return;
+            }
+            Node<V> previous = data.put(key, node);
+            segment.accessOrder.put(key, node);
+            totalWeight.addAndGet(node.weight - (previous != null ? previous.weight : 0));
+            if (load == null) {
+                loading.remove(key);
+            } else {
+                loading.remove(key, load);
+            }
         } finally {
-            lock.unlock();
+            segment.lock.unlock();
         }
+        evictIfNeeded(key);
     }
 
     public void remove(K key) {
-        lock.lock();
+        removeEntry(key);
+    }
+
+    private boolean removeEntry(K key) {
+        Segment<K, V> segment = segmentFor(key);
+        Node<V> previous;
+        segment.lock.lock();
         try {
-            cache.remove(key);
+            loading.remove(key);
+            previous = data.remove(key);
+            if (previous != null) {
+                segment.accessOrder.remove(key);
+                totalWeight.addAndGet(-previous.weight);
+            }
         } finally {
-            lock.unlock();
+            segment.lock.unlock();
+        }
+        if (previous == null) {
+            return false;
+        }
+        notifyRemoval(key, previous);
+        return true;
+    }
+
+    public void clear() {
+        loading.clear();
+        for (Segment<K, V> segment : segments) {
+            Map<K, Node<V>> removed;
+            segment.lock.lock();
+            try {
+                removed = new LinkedHashMap<>(segment.accessOrder);
+                removed.forEach((key, node) -> {
+                    data.remove(key, node);
+                    totalWeight.addAndGet(-node.weight);
+                });
+                segment.accessOrder.clear();
+            } finally {
+                segment.lock.unlock();
+            }
+            removed.forEach(this::notifyRemoval);
         }
     }
 
     public Collection<V> getAll() {
-        lock.lock();
+        long now = System.nanoTime();
+        List<V> values = new ArrayList<>();
+        for (Node<V> node : data.values()) {
+            if (!isExpired(node, now)) {
+                values.add(node.value);
+            }
+        }
+        return values;
+    }
+
+    public long size() {
+        return data.size();
+    }
+
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    public long getLoadCount() {
+        return loadCount.sum();
+    }
+
+    public long getTotalLoadTimeNanos() {
+        return totalLoadTimeNanos.sum();
+    }
+
+    /**
+     * Abandons every running load so none of them is cached, without waiting
+     * for the loads or removing cached values.
+     */
+    void abandonLoads() {
+        loading.clear();
+    }
+
+    private void recordLoad(long loadTimeNanos) {
+        loadCount.increment();
+        totalLoadTimeNanos.add(loadTimeNanos);
+    }
+
+    private static <V> V await(CompletableFuture<V> load) {
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    public long getWeight() {
+        return totalWeight.get();
+    }
+
+    public long getMaximumWeight() {
+        return maximumWeight;
+    }
+
+    public void setMaximumWeight(long maximumWeight) {
+        if (maximumWeight <= 0) {
+            throw new IllegalArgumentException("Maximum weight must be positive");
+        }
+        this.maximumWeight = maximumWeight;
+        evictIfNeeded(null);
+    }
+
+    private void evictIfNeeded(K justWritten) {
+        int emptySegments = 0;
+        while (totalWeight.get() > maximumWeight && emptySegments < SEGMENT_COUNT) {
+            int index = Math.floorMod(evictionCursor.getAndIncrement(), SEGMENT_COUNT);
+            if (evictEldest(segments.get(index), justWritten)) {
+                emptySegments = 0;
+            } else {
+                emptySegments++;
+            }
+        }
+        if (justWritten != null && totalWeight.get() > maximumWeight) {
+            if (removeEntry(justWritten)) {
+                evictionCount.increment();
+            }
+        }
+    }
+
+    private boolean evictEldest(Segment<K, V> segment, K justWritten) {
+        Map.Entry<K, Node<V>> evicted = null;
+        segment.lock.lock();
         try {
-            return new ArrayList<>(cache.values());
+            Iterator<Map.Entry<K, Node<V>>> iterator = segment.accessOrder.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<K, Node<V>> eldest = iterator.next();
+                if (eldest.getKey().equals(justWritten)) {
+                    continue;
+                }
+                iterator.remove();
+                data.remove(eldest.getKey(), eldest.getValue());
+                totalWeight.addAndGet(-eldest.getValue().weight);
+                evicted = Map.entry(eldest.getKey(), eldest.getValue());
+                break;
+            }
         } finally {
-            lock.unlock();
+            segment.lock.unlock();
         }
+        if (evicted == null) {
+            return false;
+        }
+        evictionCount.increment();
+        notifyRemoval(evicted.getKey(), evicted.getValue());
+        return true;
+    }
+
+    private boolean removeIfSame(Segment<K, V> segment, K key, Node<V> node) {
+        if (data.remove(key, node)) {
+            segment.accessOrder.remove(key);
+            totalWeight.addAndGet(-node.weight);
+            return true;
+        }
+        return false;
+    }
+
+    private void notifyRemoval(K key, Node<V> node) {
+        if (removalListener != null) {
+            removalListener.accept(key, node.value);
+        }
+    }
+
+    private boolean isExpired(Node<V> node, long now) {
+        return expireAfterWriteNanos > 0 && now - node.writeTime >= expireAfterWriteNanos;
+    }
+
+    private Segment<K, V> segmentFor(K key) {
+        int hash = key.hashCode();
+        return segments.get((hash ^ (hash >>> 16)) & (SEGMENT_COUNT - 1));
+    }
+
+    private static final class Node<V> {
+        private final V value;
+        private final long weight;
+        private final long writeTime;
+
+        private Node(V value, long weight, long writeTime) {
+            this.value = value;
+            this.weight = weight;
+            this.writeTime = writeTime;
+        }
+    }
+
+    private static final class Segment<K, V> {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final LinkedHashMap<K, Node<V>> accessOrder = new LinkedHashMap<>(16, 0.75f, true);
     }
-}
\ No newline at end of file
+}
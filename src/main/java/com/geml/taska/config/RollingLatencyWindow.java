@@ -0,0 +1,58 @@
+package com.geml.taska.config;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Ring buffer of per-minute latency histograms covering the last
+ * {@link #MAX_WINDOW_MINUTES} minutes. A slot is recycled by the first
+ * writer that observes a new minute.
+ */
+public class RollingLatencyWindow {
+    public static final int MAX_WINDOW_MINUTES = 15;
+    private static final int SLOT_COUNT = MAX_WINDOW_MINUTES + 1;
+    private static final long MILLIS_PER_MINUTE = 60_000L;
+
+    private final AtomicLongArray slotMinutes = new AtomicLongArray(SLOT_COUNT);
+    private final LatencyHistogram[] histograms = new LatencyHistogram[SLOT_COUNT];
+
+    public RollingLatencyWindow() {
+        for (int i = 0; i < SLOT_COUNT; i++) {
+            slotMinutes.set(i, -1);
+            histograms[i] = new LatencyHistogram();
+        }
+    }
+
+    public void record(long epochMillis, long latencyMicros) {
+        long minute = epochMillis / MILLIS_PER_MINUTE;
+        int slot = (int) (minute % SLOT_COUNT);
+        long slotMinute = slotMinutes.get(slot);
+        if (slotMinute != minute) {
+            if (slotMinute > minute) {
+                return;
+            }
+            if (slotMinutes.compareAndSet(slot, slotMinute, minute)) {
+                histograms[slot].reset();
+            } else if (slotMinutes.get(slot) != minute) {
+                return;
+            }
+        }
+        histograms[slot].record(latencyMicros);
+    }
+
+    public long[] snapshot(long epochMillis, int minutes) {
+        long currentMinute = epochMillis / MILLIS_PER_MINUTE;
+        long[] counts = LatencyHistogram.emptyCounts();
+        for (int i = 0; i < SLOT_COUNT; i++) {
+            long slotMinute = slotMinutes.get(i);
+            if (slotMinute <= currentMinute && slotMinute > currentMinute - minutes) {
+                histograms[i].addTo(counts);
+            }
+        }
+        return counts;
+    }
+
+    public static double elapsedSeconds(long epochMillis, int minutes) {
+        double seconds = (minutes - 1) * 60.0 + (epochMillis % MILLIS_PER_MINUTE) / 1000.0;
+        return Math.max(seconds, 1.0);
+    }
+}
@@ -0,0 +1,36 @@
+package com.geml.taska.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Creates the trigram index behind the board title search once the
+ * {@code pg_trgm} extension is installed. The extension needs a privileged
+ * role, so the application does not create it; without it the search still
+ * works, only without the index.
+ */
+@Component
+@Slf4j
+public class TrigramIndexConfig {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TrigramIndexConfig(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void createIndexes() {
+        Boolean installed = jdbcTemplate.queryForObject(
+            "SELECT EXISTS (SELECT 1 FROM pg_extension WHERE extname = 'pg_trgm')", Boolean.class);
+        if (!Boolean.TRUE.equals(installed)) {
+            log.warn("Расширение pg_trgm не установлено, поиск досок по названию работает без индекса");
+            return;
+        }
+        jdbcTemplate.execute(
+            "CREATE INDEX IF NOT EXISTS idx_boards_title_trgm ON boards USING GIN (lower(title) gin_trgm_ops)");
+    }
+}
@@ -8,6 +8,7 @@ import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
 
 @Component
 public class VisitFilter extends OncePerRequestFilter {
@@ -21,8 +22,16 @@ public class VisitFilter extends OncePerRequestFilter {
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
                                     FilterChain filterChain) throws ServletException, IOException {
-        String url = request.getRequestURI();
-        visitService.incrementVisit(url);
-        filterChain.doFilter(request, response);
+        long startNanos = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            Object routePattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            visitService.recordVisit(
+                request.getMethod(),
+                routePattern != null ? routePattern.toString() : null,
+                System.nanoTime() - startNanos
+            );
+        }
     }
 }
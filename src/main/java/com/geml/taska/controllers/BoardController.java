@@ -3,8 +3,10 @@ package com.geml.taska.controllers;
 import com.geml.taska.dto.CreateBoardDto;
 import com.geml.taska.dto.DisplayBoardDto;
 import com.geml.taska.service.BoardService;
+import com.geml.taska.service.DeletionJobService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -31,23 +33,31 @@ import org.springframework.web.bind.annotation.RestController;
 public class BoardController {
 
     private final BoardService boardService;
+    private final DeletionJobService deletionJobService;
 
 
-    public BoardController(final BoardService boardService) {
+    public BoardController(final BoardService boardService, final DeletionJobService deletionJobService) {
         this.boardService = boardService;
+        this.deletionJobService = deletionJobService;
     }
 
-    @Operation(summary = "Получить все доски", description = "Возвращает список всех досок. Можно фильтровать по заголовку.")
+    @Operation(summary = "Получить доски",
+        description = "Возвращает страницу досок в порядке ID. Можно фильтровать по заголовку. "
+            + "Курсор следующей страницы передается в заголовке X-Next-Cursor.")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Список досок успешно получен",
             content = @Content(mediaType = "application/json",
-                schema = @Schema(implementation = DisplayBoardDto.class)))
+                schema = @Schema(implementation = DisplayBoardDto.class))),
+        @ApiResponse(responseCode = "400", description = "Неверный курсор или размер страницы", content = @Content)
     })
     @GetMapping
     public ResponseEntity<List<DisplayBoardDto>> getAllBoards(
-        @Parameter(description = "Заголовок для фильтрации", example = "My Board") @RequestParam(required = false) String title
+        @Parameter(description = "Заголовок для фильтрации", example = "My Board") @RequestParam(required = false) String title,
+        @Parameter(description = "Курсор следующей страницы из заголовка X-Next-Cursor")
+        @RequestParam(required = false) String after,
+        @Parameter(description = "Размер страницы (1-500)", example = "50") @RequestParam(required = false) Integer limit
     ) {
-        return ResponseEntity.ok(boardService.getAllBoards(title));
+        return PageResponses.ok(boardService.getAllBoards(title, after, limit));
     }
 
     @Operation(summary = "Получить доску по ID", description = "Возвращает доску по ее идентификатору.")
@@ -80,6 +90,21 @@ public class BoardController {
         return ResponseEntity.status(HttpStatus.CREATED).body(createdBoard);
     }
 
+    @Operation(summary = "Создать несколько досок", description = "Создает до 1000 досок за один запрос.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "201", description = "Доски успешно созданы",
+            content = @Content(mediaType = "application/json",
+                array = @ArraySchema(schema = @Schema(implementation = DisplayBoardDto.class)))),
+        @ApiResponse(responseCode = "400", description = "Неверные входные данные", content = @Content),
+        @ApiResponse(responseCode = "404", description = "Пользователь не найден", content = @Content)
+    })
+    @PostMapping("/bulk")
+    public ResponseEntity<List<DisplayBoardDto>> createBoardsBulk(
+        @Parameter(description = "Список данных для создания досок") @Valid @RequestBody List<CreateBoardDto> boardDtos
+    ) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(boardService.createBoards(boardDtos));
+    }
+
     @Operation(summary = "Обновить доску", description = "Обновляет существующую доску.")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Доска успешно обновлена",
@@ -97,15 +122,21 @@ public class BoardController {
         return ResponseEntity.ok(updatedBoard);
     }
 
-    @Operation(summary = "Удалить доску", description = "Удаляет доску по ее идентификатору.")
+    @Operation(summary = "Удалить доску", description = "Удаляет доску по ее идентификатору. С async=true удаление выполняется в фоне, а в ответе возвращается ID задачи.")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "204", description = "Доска успешно удалена", content = @Content),
+        @ApiResponse(responseCode = "202", description = "Задача на удаление принята",
+            content = @Content(mediaType = "text/plain", schema = @Schema(type = "string", format = "UUID"))),
         @ApiResponse(responseCode = "404", description = "Доска не найдена", content = @Content)
     })
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteBoard(
-        @Parameter(description = "Идентификатор доски для удаления", example = "1") @PathVariable Long id
+    public ResponseEntity<String> deleteBoard(
+        @Parameter(description = "Идентификатор доски для удаления", example = "1") @PathVariable Long id,
+        @Parameter(description = "Удалить в фоне", example = "false") @RequestParam(defaultValue = "false") boolean async
     ) {
+        if (async) {
+            return DeletionController.accepted(deletionJobService.startBoardDeletion(id));
+        }
         boardService.deleteBoard(id);
         return ResponseEntity.noContent().build();
     }
@@ -0,0 +1,110 @@
+package com.geml.taska.controllers;
+
+import com.geml.taska.dto.CacheStatsDto;
+import com.geml.taska.service.CacheService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.util.List;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+
+@RestController
+@RequestMapping("/api/cache")
+@Tag(name = "Cache", description = "Cache statistics and management API")
+public class CacheController {
+
+    private final CacheService cacheService;
+
+
+    public CacheController(final CacheService cacheService) {
+        this.cacheService = cacheService;
+    }
+
+
+    @Operation(summary = "Get cache statistics",
+        description = "Retrieve hits, misses, evictions, load time and size of every cache.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Statistics retrieved",
+            content = @Content(mediaType = "application/json",
+                schema = @Schema(implementation = CacheStatsDto.class)))
+    })
+    @GetMapping("/stats")
+    public ResponseEntity<List<CacheStatsDto>> getStats() {
+        return ResponseEntity.ok(cacheService.getStats());
+    }
+
+
+    @Operation(summary = "Get statistics of a cache", description = "Retrieve statistics of the named cache.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Statistics retrieved",
+            content = @Content(mediaType = "application/json",
+                schema = @Schema(implementation = CacheStatsDto.class))),
+        @ApiResponse(responseCode = "404", description = "Cache not found", content = @Content)
+    })
+    @GetMapping("/{name}/stats")
+    public ResponseEntity<CacheStatsDto> getStats(
+        @Parameter(description = "Name of the cache", example = "notebooks") @PathVariable String name
+    ) {
+        return ResponseEntity.ok(cacheService.getStats(name));
+    }
+
+
+    @Operation(summary = "Warm a cache", description = "Load the named cache from the database.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Cache warmed",
+            content = @Content(mediaType = "application/json",
+                schema = @Schema(implementation = CacheStatsDto.class))),
+        @ApiResponse(responseCode = "404", description = "Cache not found", content = @Content)
+    })
+    @PostMapping("/{name}/warm")
+    public ResponseEntity<CacheStatsDto> warm(
+        @Parameter(description = "Name of the cache", example = "notebooks") @PathVariable String name
+    ) {
+        return ResponseEntity.ok(cacheService.warm(name));
+    }
+
+
+    @Operation(summary = "Resize a cache", description = "Change the maximum weight of the named cache in bytes.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Cache resized",
+            content = @Content(mediaType = "application/json",
+                schema = @Schema(implementation = CacheStatsDto.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid maximum weight", content = @Content),
+        @ApiResponse(responseCode = "404", description = "Cache not found", content = @Content)
+    })
+    @PutMapping("/{name}/maximum-weight")
+    public ResponseEntity<CacheStatsDto> resize(
+        @Parameter(description = "Name of the cache", example = "notebooks") @PathVariable String name,
+        @Parameter(description = "New maximum weight in bytes", example = "33554432") @RequestParam long bytes
+    ) {
+        return ResponseEntity.ok(cacheService.resize(name, bytes));
+    }
+
+
+    @Operation(summary = "Clear a cache", description = "Remove all entries from the named cache.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Cache cleared",
+            content = @Content(mediaType = "application/json",
+                schema = @Schema(implementation = CacheStatsDto.class))),
+        @ApiResponse(responseCode = "404", description = "Cache not found", content = @Content)
+    })
+    @DeleteMapping("/{name}")
+    public ResponseEntity<CacheStatsDto> clear(
+        @Parameter(description = "Name of the cache", example = "notebooks") @PathVariable String name
+    ) {
+        return ResponseEntity.ok(cacheService.clear(name));
+    }
+}
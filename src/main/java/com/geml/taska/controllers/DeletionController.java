@@ -0,0 +1,49 @@
+package com.geml.taska.controllers;
+
+import com.geml.taska.dto.DeletionJobStatusDto;
+import com.geml.taska.service.DeletionJobService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.net.URI;
+import java.util.UUID;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/deletions")
+@Tag(name = "Deletion", description = "API для отслеживания фоновых удалений")
+public class DeletionController {
+
+    private final DeletionJobService deletionJobService;
+
+    public DeletionController(final DeletionJobService deletionJobService) {
+        this.deletionJobService = deletionJobService;
+    }
+
+    static ResponseEntity<String> accepted(final String jobId) {
+        return ResponseEntity.accepted()
+            .location(URI.create("/api/deletions/" + jobId))
+            .body(jobId);
+    }
+
+    @Operation(summary = "Получить статус удаления", description = "Возвращает статус и прогресс фонового удаления по ID задачи.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Статус успешно получен",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = DeletionJobStatusDto.class))),
+        @ApiResponse(responseCode = "404", description = "Задача не найдена", content = @Content)
+    })
+    @GetMapping("/{jobId}")
+    public ResponseEntity<DeletionJobStatusDto> getDeletionStatus(
+        @Parameter(description = "ID задачи на удаление", example = "f47ac10b-58cc-4372-a567-0e02b2c3d479") @PathVariable UUID jobId
+    ) {
+        return ResponseEntity.ok(deletionJobService.getStatus(jobId));
+    }
+}
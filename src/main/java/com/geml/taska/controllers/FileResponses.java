@@ -0,0 +1,153 @@
+package com.geml.taska.controllers;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * File downloads served straight from disk. A file-backed body lets Spring
+ * answer {@code Range} requests with 206 and exact {@code Content-Length}
+ * while copying through a fixed-size buffer, so heap use does not depend on
+ * the file size. The ETag and Last-Modified validators make downloads
+ * resumable and answer conditional requests with 304.
+ */
+final class FileResponses {
+    private static final MediaType GZIP = MediaType.parseMediaType("application/gzip");
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+    private FileResponses() {
+    }
+
+    static ResponseEntity<Resource> download(final Path path, final String ifRange) throws IOException {
+        long size = Files.size(path);
+        Instant lastModified = Files.getLastModifiedTime(path).toInstant();
+        String etag = "\"" + Long.toHexString(size) + "-" + Long.toHexString(lastModified.toEpochMilli()) + "\"";
+        Resource body = ifRange == null || matches(ifRange, etag, lastModified)
+            ? new FileSystemResource(path)
+            // A stream body is never split into ranges, so a stale If-Range gets the whole file.
+            : new InputStreamResource(Files.newInputStream(path));
+        return ResponseEntity.ok()
+            .contentType(MediaType.TEXT_PLAIN)
+            .contentLength(size)
+            .lastModified(lastModified)
+            .eTag(etag)
+            .header("Content-Disposition",
+                ContentDisposition.attachment().filename(path.getFileName().toString()).build().toString())
+            .body(body);
+    }
+
+    /**
+     * Streams the files one after another as a single download. All files
+     * are opened before the response is committed and copied by channel
+     * transfer up to the size they had then, so a file still being appended
+     * to does not break Content-Length and one that log rotation deletes
+     * meanwhile stays readable. A file truncated under the open handle
+     * cannot supply the promised bytes; the download then fails instead of
+     * ending short. With {@code gzip} the stream is compressed on the fly and
+     * sent without a length.
+     */
+    static ResponseEntity<StreamingResponseBody> concatenate(
+        final List<Path> files, final String filename, final boolean gzip
+    ) throws IOException {
+        List<FileChannel> channels = new ArrayList<>(files.size());
+        long[] sizes = new long[files.size()];
+        long total = 0;
+        try {
+            for (int i = 0; i < sizes.length; i++) {
+                FileChannel channel = FileChannel.open(files.get(i), StandardOpenOption.READ);
+                channels.add(channel);
+                sizes[i] = channel.size();
+                total += sizes[i];
+            }
+        } catch (IOException e) {
+            try {
+                closeAll(channels);
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        }
+        StreamingResponseBody body = out -> {
+            try (Closeable opened = () -> closeAll(channels)) {
+                OutputStream target = gzip ? new GZIPOutputStream(out, GZIP_BUFFER_SIZE) : out;
+                WritableByteChannel channel = Channels.newChannel(target);
+                for (int i = 0; i < sizes.length; i++) {
+                    FileChannel file = channels.get(i);
+                    long position = 0;
+                    while (position < sizes[i]) {
+                        long transferred = file.transferTo(position, sizes[i] - position, channel);
+                        if (transferred <= 0) {
+                            throw new IOException("Log file " + files.get(i).getFileName()
+                                + " was truncated while it was being sent");
+                        }
+                        position += transferred;
+                    }
+                }
+                if (target instanceof GZIPOutputStream compressed) {
+                    compressed.finish();
+                }
+            }
+        };
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+            .header("Content-Disposition",
+                ContentDisposition.attachment().filename(gzip ? filename + ".gz" : filename).build().toString());
+        if (gzip) {
+            return response.contentType(GZIP).body(body);
+        }
+        return response.contentType(MediaType.TEXT_PLAIN).contentLength(total).body(body);
+    }
+
+    private static void closeAll(List<FileChannel> channels) throws IOException {
+        IOException failure = null;
+        for (FileChannel channel : channels) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * If-Range carries either the ETag or the Last-Modified date the client
+     * saw; a partial response is only valid if the file has not changed since.
+     */
+    private static boolean matches(String ifRange, String etag, Instant lastModified) {
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.equals(etag);
+        }
+        try {
+            Instant since = ZonedDateTime.parse(ifRange, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+            return since.getEpochSecond() == lastModified.getEpochSecond();
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+}
@@ -4,6 +4,7 @@ import com.geml.taska.dto.LogCreationStatusDto;
 import com.geml.taska.models.LogFile;
 import com.geml.taska.service.AsyncLogService;
 import com.geml.taska.service.AsyncLogService.LogStatus;
+import com.geml.taska.service.LogSearchService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -11,65 +12,83 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
-import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
 import java.util.UUID;
-import java.util.concurrent.CompletableFuture;
-import org.springframework.core.io.ByteArrayResource;
-import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/logs")
 @Tag(name = "Log", description = "API для управления логами")
 public class LogController {
 
-    private static final String LOG_DIRECTORY = "logs/";
     private static final String DATE_FORMAT_PATTERN = "yyyy-MM-dd";
     private static final DateTimeFormatter DATE_FORMATTER =
         DateTimeFormatter.ofPattern(DATE_FORMAT_PATTERN);
 
     private final AsyncLogService asyncLogService;
+    private final LogSearchService logSearchService;
 
-    public LogController(AsyncLogService asyncLogService) {
+    public LogController(AsyncLogService asyncLogService, LogSearchService logSearchService) {
         this.asyncLogService = asyncLogService;
+        this.logSearchService = logSearchService;
     }
 
-    @Operation(summary = "Создать лог файл асинхронно", description = "Создает лог файл асинхронно и возвращает ID задачи.")
+    @Operation(summary = "Создать лог файл асинхронно",
+        description = "Создает объединенный лог файл за дату в фоне и возвращает ID задачи. "
+            + "Если за эту дату уже есть выполняющаяся задача или готовый файл из тех же данных, возвращается ее ID.")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "202", description = "Задача на создание лог файла принята",
             content = @Content(mediaType = "text/plain", schema = @Schema(type = "string", format = "UUID"))),
+        @ApiResponse(responseCode = "404", description = "Лог файлы за дату не найдены", content = @Content),
+        @ApiResponse(responseCode = "503", description = "Слишком много задач на создание лог файлов", content = @Content),
         @ApiResponse(responseCode = "500", description = "Ошибка при создании задачи", content = @Content)
     })
     @PostMapping("/{date}")
-    public CompletableFuture<ResponseEntity<String>> createLogFileAsync(
+    public ResponseEntity<String> createLogFileAsync(
         @Parameter(description = "Дата лога в формате YYYY-MM-DD", example = "2023-10-27") @PathVariable String date
     ) {
+        LocalDate logDate = LocalDate.parse(date, DateTimeFormatter.ISO_DATE);
         try {
-            LocalDate logDate = LocalDate.parse(date, DateTimeFormatter.ISO_DATE);
-            return asyncLogService.createLogFileAsync(logDate)
-                .thenApply(logId -> ResponseEntity.status(HttpStatus.ACCEPTED).body(logId));
-        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(asyncLogService.createLogFile(logDate));
+        } catch (IOException e) {
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Error creating log file task", e);
         }
     }
 
+    @Operation(summary = "Отменить создание лог файла", description = "Останавливает выполняющуюся задачу на создание лог файла.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Отмена запрошена",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = LogCreationStatusDto.class))),
+        @ApiResponse(responseCode = "404", description = "Задача не найдена", content = @Content),
+        @ApiResponse(responseCode = "409", description = "Задача уже завершена", content = @Content)
+    })
+    @DeleteMapping("/status/{logId}")
+    public ResponseEntity<LogCreationStatusDto> cancelLogCreation(
+        @Parameter(description = "ID задачи на создание лог файла", example = "f47ac10b-58cc-4372-a567-0e02b2c3d479") @PathVariable UUID logId
+    ) {
+        return ResponseEntity.ok(asyncLogService.cancelLogFile(logId));
+    }
+
     @Operation(summary = "Получить статус создания лог файла", description = "Возвращает статус создания лог файла по ID задачи.")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Статус успешно получен",
@@ -87,28 +106,50 @@ public class LogController {
         return ResponseEntity.ok(status);
     }
 
+    @Operation(summary = "Поиск по лог файлам",
+        description = "Возвращает записи логов за период, отфильтрованные по уровню, логгеру и тексту, "
+            + "в порядке их появления в файлах. Время указывается в формате YYYY-MM-DDTHH:MM:SS, "
+            + "по умолчанию ищется с начала текущих суток.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Найденные записи логов",
+            content = @Content(mediaType = "text/plain", schema = @Schema(type = "string"))),
+        @ApiResponse(responseCode = "400", description = "Некорректные параметры поиска", content = @Content)
+    })
+    @GetMapping("/search")
+    public ResponseEntity<StreamingResponseBody> searchLogs(
+        @Parameter(description = "Начало периода", example = "2023-10-27T10:00:00") @RequestParam(required = false) String from,
+        @Parameter(description = "Конец периода", example = "2023-10-27T12:00:00") @RequestParam(required = false) String to,
+        @Parameter(description = "Уровни логирования", example = "WARN,ERROR") @RequestParam(required = false) List<String> level,
+        @Parameter(description = "Префикс имени логгера", example = "com.geml.taska.service") @RequestParam(required = false) String logger,
+        @Parameter(description = "Искомый текст", example = "Exception") @RequestParam(required = false) String q,
+        @Parameter(description = "Искать текст как регулярное выражение", example = "false") @RequestParam(defaultValue = "false") boolean regex,
+        @Parameter(description = "Максимальное число записей (1-10000)", example = "1000") @RequestParam(required = false) Integer limit
+    ) {
+        LogSearchService.Query query = LogSearchService.Query.of(from, to, level, logger, q, regex, limit);
+        return ResponseEntity.ok()
+            .contentType(MediaType.TEXT_PLAIN)
+            .body(out -> logSearchService.search(query, out));
+    }
+
     @Operation(summary = "Получить лог файл по дате и ротации", description = "Возвращает лог файл за указанную дату и номер ротации.")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Лог файл успешно получен",
             content = @Content(mediaType = "text/plain", schema = @Schema(type = "string", format = "binary"))),
+        @ApiResponse(responseCode = "206", description = "Часть лог файла по заголовку Range",
+            content = @Content(mediaType = "text/plain", schema = @Schema(type = "string", format = "binary"))),
+        @ApiResponse(responseCode = "304", description = "Лог файл не изменился", content = @Content),
         @ApiResponse(responseCode = "404", description = "Лог файл не найден", content = @Content),
         @ApiResponse(responseCode = "500", description = "Ошибка при чтении лог файла", content = @Content)
     })
     @GetMapping("/{date}")
     public ResponseEntity<Resource> getLogFileByDate(
         @Parameter(description = "Дата лога в формате YYYY-MM-DD", example = "2023-10-27") @PathVariable String date,
-        @Parameter(description = "Номер ротации лога", example = "0") @RequestParam Integer rotation
+        @Parameter(description = "Номер ротации лога", example = "0") @RequestParam Integer rotation,
+        @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.IF_RANGE, required = false) String ifRange
     ) {
         try {
             LocalDate logDate = LocalDate.parse(date, DateTimeFormatter.ISO_DATE);
-            String logFileName;
-            Path logFilePath;
-
-
-            logFileName = "app-"
-                + logDate.format(DATE_FORMATTER)
-                + "." + rotation + ".log";
-            logFilePath = Paths.get(LOG_DIRECTORY, logFileName);
+            Path logFilePath = asyncLogService.rolledLogFile(logDate, rotation);
 
             if (!Files.exists(logFilePath)) {
                 String reason = "Log file not found for date: " + date;
@@ -118,16 +159,7 @@ public class LogController {
                 throw new ResponseStatusException(HttpStatus.NOT_FOUND, reason);
             }
 
-            ByteArrayResource resource = new ByteArrayResource(Files.readAllBytes(logFilePath));
-
-            HttpHeaders headers = new HttpHeaders();
-            headers.add(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + logFileName);
-            headers.setContentType(MediaType.TEXT_PLAIN);
-
-            return ResponseEntity.ok()
-                .headers(headers)
-                .contentLength(Files.size(logFilePath))
-                .body(resource);
+            return FileResponses.download(logFilePath, ifRange);
 
         } catch (IOException e) {
             throw new ResponseStatusException(
@@ -137,32 +169,24 @@ public class LogController {
         }
     }
 
-    @Operation(summary = "Получить все лог файлы за дату", description = "Возвращает все лог файлы за указанную дату, включая все ротации.")
+    @Operation(summary = "Получить все лог файлы за дату", description = "Возвращает все лог файлы за указанную дату одним потоком в порядке ротации, при необходимости сжатые в gzip.")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Лог файлы успешно получены",
-            content = @Content(mediaType = "text/plain", schema = @Schema(type = "string", format = "binary"))),
+            content = {
+                @Content(mediaType = "text/plain", schema = @Schema(type = "string", format = "binary")),
+                @Content(mediaType = "application/gzip", schema = @Schema(type = "string", format = "binary"))
+            }),
         @ApiResponse(responseCode = "404", description = "Лог файлы не найдены", content = @Content),
         @ApiResponse(responseCode = "500", description = "Ошибка при чтении лог файлов", content = @Content)
     })
     @GetMapping("/all/{date}")
-    public ResponseEntity<Resource> getAllLogFileByDate(
-        @Parameter(description = "Дата логов в формате YYYY-MM-DD", example = "2023-10-27") @PathVariable String date
+    public ResponseEntity<StreamingResponseBody> getAllLogFileByDate(
+        @Parameter(description = "Дата логов в формате YYYY-MM-DD", example = "2023-10-27") @PathVariable String date,
+        @Parameter(description = "Сжать ответ в gzip", example = "false") @RequestParam(defaultValue = "false") boolean gzip
     ) {
         try {
             LocalDate logDate = LocalDate.parse(date, DateTimeFormatter.ISO_DATE);
-            String logFileNamePattern = "app-"
-                + logDate.format(DATE_FORMATTER) + ".*.log";
-            Path logDirectoryPath = Paths.get(LOG_DIRECTORY);
-
-            if (!Files.exists(logDirectoryPath) || !Files.isDirectory(logDirectoryPath)) {
-                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Log directory not found");
-            }
-
-            java.util.List<Path> matchingFiles = Files.list(logDirectoryPath)
-                .filter(path -> path.getFileName().toString()
-                    .matches(logFileNamePattern.replace(".", "\\.")
-                        .replace("*", ".*")))
-                .toList();
+            List<Path> matchingFiles = asyncLogService.findRolledLogFiles(logDate);
 
             if (matchingFiles.isEmpty()) {
                 throw new ResponseStatusException(
@@ -171,26 +195,7 @@ public class LogController {
                 );
             }
 
-            StringBuilder combinedLogContent = new StringBuilder();
-            for (Path logFilePath : matchingFiles) {
-                combinedLogContent.append(new String(Files.readAllBytes(logFilePath))).append("\n");
-            }
-
-            ByteArrayResource resource = new ByteArrayResource(
-                combinedLogContent.toString().getBytes()
-            );
-
-            HttpHeaders headers = new HttpHeaders();
-            headers.add(HttpHeaders.CONTENT_DISPOSITION,
-                "attachment; filename=app-"
-                    + logDate.format(DATE_FORMATTER) + ".log"
-            );
-            headers.setContentType(MediaType.TEXT_PLAIN);
-
-            return ResponseEntity.ok()
-                .headers(headers)
-                .contentLength(combinedLogContent.length())
-                .body(resource);
+            return FileResponses.concatenate(matchingFiles, "app-" + logDate.format(DATE_FORMATTER) + ".log", gzip);
 
         } catch (IOException e) {
             throw new ResponseStatusException(
@@ -204,12 +209,16 @@ public class LogController {
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Лог файл успешно получен",
             content = @Content(mediaType = "text/plain", schema = @Schema(type = "string", format = "binary"))),
+        @ApiResponse(responseCode = "206", description = "Часть лог файла по заголовку Range",
+            content = @Content(mediaType = "text/plain", schema = @Schema(type = "string", format = "binary"))),
+        @ApiResponse(responseCode = "304", description = "Лог файл не изменился", content = @Content),
         @ApiResponse(responseCode = "404", description = "Задача не найдена или лог файл не готов", content = @Content),
         @ApiResponse(responseCode = "500", description = "Ошибка при чтении лог файла", content = @Content)
     })
     @GetMapping("/file/{logId}")
     public ResponseEntity<Resource> getLogFileByLogId(
-        @Parameter(description = "ID задачи на создание лог файла", example = "f47ac10b-58cc-4372-a567-0e02b2c3d479") @PathVariable UUID logId
+        @Parameter(description = "ID задачи на создание лог файла", example = "f47ac10b-58cc-4372-a567-0e02b2c3d479") @PathVariable UUID logId,
+        @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.IF_RANGE, required = false) String ifRange
     ) {
         LogFile logFile = asyncLogService.getLogFile(logId);
         if (logFile == null || logFile.getStatus() != LogStatus.COMPLETED) {
@@ -221,19 +230,15 @@ public class LogController {
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "File path not available");
         }
 
-        File file = new File(filePath);
-        if (!file.exists()) {
+        Path path = Paths.get(filePath);
+        if (!Files.exists(path)) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Log file not found");
         }
 
-        Resource resource = new FileSystemResource(file);
-        HttpHeaders headers = new HttpHeaders();
-        headers.add(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + file.getName());
-        headers.setContentType(MediaType.TEXT_PLAIN);
-
-        return ResponseEntity.ok()
-            .headers(headers)
-            .contentLength(file.length())
-            .body(resource);
+        try {
+            return FileResponses.download(path, ifRange);
+        } catch (IOException e) {
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Error reading log file", e);
+        }
     }
 }
@@ -3,9 +3,11 @@ package com.geml.taska.controllers;
 import com.geml.taska.dto.CreateNotebookDto;
 import com.geml.taska.dto.DisplayNotebookDto;
 import com.geml.taska.dto.DisplayNotebookFullDto;
+import com.geml.taska.service.NotebookExportService;
 import com.geml.taska.service.NotebookService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -24,6 +26,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 
 @RestController
@@ -32,24 +35,35 @@ import org.springframework.web.bind.annotation.RestController;
 public class NotebookController {
 
     private final NotebookService notebookService;
+    private final NotebookExportService notebookExportService;
 
 
-    public NotebookController(final NotebookService notebookService) {
+    public NotebookController(
+        final NotebookService notebookService,
+        final NotebookExportService notebookExportService
+    ) {
         this.notebookService = notebookService;
+        this.notebookExportService = notebookExportService;
     }
 
 
-    @Operation(summary = "Get all notebooks", description = "Retrieve a list of all notebooks. Optionally filter by taskId.")
+    @Operation(summary = "Get notebooks",
+        description = "Retrieve a page of notebooks in id order. Optionally filter by taskId. "
+            + "The cursor of the next page is returned in the X-Next-Cursor header.")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Successfully retrieved list",
             content = @Content(mediaType = "application/json",
-                schema = @Schema(implementation = DisplayNotebookDto.class)))
+                schema = @Schema(implementation = DisplayNotebookDto.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor or page size", content = @Content)
     })
     @GetMapping
     public ResponseEntity<List<DisplayNotebookDto>> getAllNotebooks(
-        @Parameter(description = "Task ID to filter by", example = "1") @RequestParam(required = false) Long taskId
+        @Parameter(description = "Task ID to filter by", example = "1") @RequestParam(required = false) Long taskId,
+        @Parameter(description = "Cursor of the next page, taken from the X-Next-Cursor header")
+        @RequestParam(required = false) String after,
+        @Parameter(description = "Page size (1-500)", example = "50") @RequestParam(required = false) Integer limit
     ) {
-        return ResponseEntity.ok(notebookService.getAllNotebooks(taskId));
+        return PageResponses.ok(notebookService.getAllNotebooks(taskId, after, limit));
     }
 
 
@@ -81,17 +95,51 @@ public class NotebookController {
         return ResponseEntity.ok(notebookService.getAllNotebooksFull(tag));
     }
 
-    @Operation(summary = "Search notebooks by title", description = "Retrieve a list of notebooks matching the given title.")
+    @Operation(summary = "Export notebooks with full details",
+        description = "Stream all notebooks with full details (tags and task) as a JSON array or as NDJSON, "
+            + "one notebook per line. Optionally filter by tag name.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Export streamed",
+            content = {
+                @Content(mediaType = "application/json",
+                    schema = @Schema(implementation = DisplayNotebookFullDto.class)),
+                @Content(mediaType = "application/x-ndjson",
+                    schema = @Schema(implementation = DisplayNotebookFullDto.class))
+            }),
+        @ApiResponse(responseCode = "400", description = "Unsupported format", content = @Content)
+    })
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportNotebooks(
+        @Parameter(description = "Tag name to filter by", example = "important") @RequestParam(required = false) String tag,
+        @Parameter(description = "Output format: json or ndjson", example = "ndjson")
+        @RequestParam(defaultValue = "json") String format
+    ) {
+        NotebookExportService.Format exportFormat = NotebookExportService.Format.parse(format);
+        return ResponseEntity.ok()
+            .contentType(exportFormat.getMediaType())
+            .body(out -> notebookExportService.export(tag, exportFormat, out));
+    }
+
+    @Operation(summary = "Search notebooks",
+        description = "Full-text search over notebook title and content, best matches first. "
+            + "Accepts several words, quoted phrases and -excluded words. "
+            + "The cursor of the next page is returned in the X-Next-Cursor header.")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Successfully retrieved list",
             content = @Content(mediaType = "application/json",
-                schema = @Schema(implementation = DisplayNotebookDto.class)))
+                schema = @Schema(implementation = DisplayNotebookDto.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor or page size", content = @Content)
     })
     @GetMapping("/search")
     public ResponseEntity<List<DisplayNotebookDto>> getAllNotebooksSearch(
-        @Parameter(description = "Title to search by", example = "My Notebook") @RequestParam(required = false) String title
+        @Parameter(description = "Search query", example = "meeting notes") @RequestParam(required = false) String q,
+        @Parameter(description = "Former name of the search query parameter", deprecated = true)
+        @RequestParam(required = false) String title,
+        @Parameter(description = "Cursor of the next page, taken from the X-Next-Cursor header")
+        @RequestParam(required = false) String after,
+        @Parameter(description = "Page size (1-500)", example = "50") @RequestParam(required = false) Integer limit
     ) {
-        return ResponseEntity.ok(notebookService.getAllNotebooksSearch(title));
+        return PageResponses.ok(notebookService.getAllNotebooksSearch(q != null ? q : title, after, limit));
     }
 
 
@@ -126,6 +174,22 @@ public class NotebookController {
     }
 
 
+    @Operation(summary = "Create notebooks in bulk", description = "Create up to 1000 notebooks in one request.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "201", description = "Successfully created notebooks",
+            content = @Content(mediaType = "application/json",
+                array = @ArraySchema(schema = @Schema(implementation = DisplayNotebookDto.class)))),
+        @ApiResponse(responseCode = "400", description = "Invalid input", content = @Content),
+        @ApiResponse(responseCode = "404", description = "Task or tag not found", content = @Content)
+    })
+    @PostMapping("/bulk")
+    public ResponseEntity<List<DisplayNotebookDto>> createNotebooksBulk(
+        @Parameter(description = "Notebooks to create") final @Valid @RequestBody List<CreateNotebookDto> dtos
+    ) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(notebookService.createNotebooks(dtos));
+    }
+
+
     @Operation(summary = "Update a notebook", description = "Update an existing notebook.")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Successfully updated notebook",
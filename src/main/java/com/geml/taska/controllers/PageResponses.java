@@ -0,0 +1,24 @@
+package com.geml.taska.controllers;
+
+import com.geml.taska.dto.CursorPageDto;
+import java.util.List;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * List endpoints keep returning a plain JSON array; the cursor of the next
+ * page travels in a response header and is absent on the last page.
+ */
+final class PageResponses {
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private PageResponses() {
+    }
+
+    static <T> ResponseEntity<List<T>> ok(final CursorPageDto<T> page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getItems());
+    }
+}
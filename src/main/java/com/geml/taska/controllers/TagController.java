@@ -2,6 +2,8 @@ package com.geml.taska.controllers;
 
 import com.geml.taska.dto.CreateTagDto;
 import com.geml.taska.dto.DisplayTagDto;
+import com.geml.taska.dto.TagImportResultDto;
+import com.geml.taska.service.TagImportService;
 import com.geml.taska.service.TagService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -12,8 +14,11 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -22,6 +27,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 
@@ -31,21 +37,29 @@ import org.springframework.web.bind.annotation.RestController;
 public class TagController {
 
     private final TagService tagService;
+    private final TagImportService tagImportService;
 
 
-    public TagController(final TagService tagService) {
+    public TagController(final TagService tagService, final TagImportService tagImportService) {
         this.tagService = tagService;
+        this.tagImportService = tagImportService;
     }
 
-    @Operation(summary = "Получить все теги", description = "Возвращает список всех тегов.")
+    @Operation(summary = "Получить теги",
+        description = "Возвращает страницу тегов в порядке ID. Курсор следующей страницы передается в заголовке X-Next-Cursor.")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Список тегов успешно получен",
             content = @Content(mediaType = "application/json",
-                array = @ArraySchema(schema = @Schema(implementation = DisplayTagDto.class))))
+                array = @ArraySchema(schema = @Schema(implementation = DisplayTagDto.class)))),
+        @ApiResponse(responseCode = "400", description = "Неверный курсор или размер страницы", content = @Content)
     })
     @GetMapping
-    public ResponseEntity<List<DisplayTagDto>> getAllTags() {
-        return ResponseEntity.ok(tagService.getAllTags());
+    public ResponseEntity<List<DisplayTagDto>> getAllTags(
+        @Parameter(description = "Курсор следующей страницы из заголовка X-Next-Cursor")
+        @RequestParam(required = false) String after,
+        @Parameter(description = "Размер страницы (1-500)", example = "50") @RequestParam(required = false) Integer limit
+    ) {
+        return PageResponses.ok(tagService.getAllTags(after, limit));
     }
 
     @Operation(summary = "Получить тег по ID", description = "Возвращает тег по его идентификатору.")
@@ -92,6 +106,21 @@ public class TagController {
         return ResponseEntity.status(HttpStatus.CREATED).body(createdTags);
     }
 
+    @Operation(summary = "Импортировать теги",
+        description = "Потоково импортирует теги из JSON-массива или NDJSON, не загружая тело запроса в память целиком.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "201", description = "Теги успешно импортированы",
+            content = @Content(mediaType = "application/json",
+                schema = @Schema(implementation = TagImportResultDto.class))),
+        @ApiResponse(responseCode = "400", description = "Неверные входные данные", content = @Content),
+        @ApiResponse(responseCode = "404", description = "Пользователь не найден", content = @Content)
+    })
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<TagImportResultDto> importTags(final InputStream body) throws IOException {
+        long created = tagImportService.importTags(body);
+        return ResponseEntity.status(HttpStatus.CREATED).body(new TagImportResultDto(created));
+    }
+
     @Operation(summary = "Обновить тег", description = "Обновляет существующий тег.")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Тег успешно обновлен",
@@ -5,6 +5,7 @@ import com.geml.taska.dto.DisplayTaskDto;
 import com.geml.taska.service.TaskService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -21,6 +22,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 
@@ -36,16 +38,21 @@ public class TaskController {
         this.taskService = taskService;
     }
 
-    @Operation(summary = "Получить все задачи", description = "Возвращает список всех задач.")
+    @Operation(summary = "Получить задачи",
+        description = "Возвращает страницу задач в порядке ID. Курсор следующей страницы передается в заголовке X-Next-Cursor.")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Список задач успешно получен",
             content = @Content(mediaType = "application/json",
-                schema = @Schema(implementation = DisplayTaskDto.class)))
+                schema = @Schema(implementation = DisplayTaskDto.class))),
+        @ApiResponse(responseCode = "400", description = "Неверный курсор или размер страницы", content = @Content)
     })
     @GetMapping
-    public ResponseEntity<List<DisplayTaskDto>> getAllTasks() {
-        List<DisplayTaskDto> tasks = taskService.getAllTasks();
-        return ResponseEntity.ok(tasks);
+    public ResponseEntity<List<DisplayTaskDto>> getAllTasks(
+        @Parameter(description = "Курсор следующей страницы из заголовка X-Next-Cursor")
+        @RequestParam(required = false) String after,
+        @Parameter(description = "Размер страницы (1-500)", example = "50") @RequestParam(required = false) Integer limit
+    ) {
+        return PageResponses.ok(taskService.getAllTasks(after, limit));
     }
 
     @Operation(summary = "Получить задачу по ID", description = "Возвращает задачу по ее идентификатору.")
@@ -78,6 +85,21 @@ public class TaskController {
         return ResponseEntity.status(HttpStatus.CREATED).body(createdTask);
     }
 
+    @Operation(summary = "Создать несколько задач", description = "Создает до 1000 задач за один запрос.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "201", description = "Задачи успешно созданы",
+            content = @Content(mediaType = "application/json",
+                array = @ArraySchema(schema = @Schema(implementation = DisplayTaskDto.class)))),
+        @ApiResponse(responseCode = "400", description = "Неверные входные данные", content = @Content),
+        @ApiResponse(responseCode = "404", description = "Доска не найдена", content = @Content)
+    })
+    @PostMapping("/bulk")
+    public ResponseEntity<List<DisplayTaskDto>> createTasksBulk(
+        @Parameter(description = "Список данных для создания задач") final @Valid @RequestBody List<CreateTaskDto> dtos
+    ) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(taskService.createTasks(dtos));
+    }
+
     @Operation(summary = "Обновить задачу", description = "Обновляет существующую задачу.")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Задача успешно обновлена",
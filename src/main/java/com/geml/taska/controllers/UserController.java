@@ -2,6 +2,7 @@ package com.geml.taska.controllers;
 
 import com.geml.taska.dto.CreateUserDto;
 import com.geml.taska.dto.DisplayUserDto;
+import com.geml.taska.service.DeletionJobService;
 import com.geml.taska.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -21,6 +22,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 
@@ -30,22 +32,29 @@ import org.springframework.web.bind.annotation.RestController;
 public class UserController {
 
     private final UserService userService;
+    private final DeletionJobService deletionJobService;
 
 
-    public UserController(final UserService userService) {
+    public UserController(final UserService userService, final DeletionJobService deletionJobService) {
         this.userService = userService;
+        this.deletionJobService = deletionJobService;
     }
 
-    @Operation(summary = "Получить всех пользователей", description = "Возвращает список всех пользователей.")
+    @Operation(summary = "Получить пользователей",
+        description = "Возвращает страницу пользователей в порядке ID. Курсор следующей страницы передается в заголовке X-Next-Cursor.")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Список пользователей успешно получен",
             content = @Content(mediaType = "application/json",
-                schema = @Schema(implementation = DisplayUserDto.class)))
+                schema = @Schema(implementation = DisplayUserDto.class))),
+        @ApiResponse(responseCode = "400", description = "Неверный курсор или размер страницы", content = @Content)
     })
     @GetMapping
-    public ResponseEntity<List<DisplayUserDto>> getAllUsers() {
-        List<DisplayUserDto> users = userService.getAllUsers();
-        return ResponseEntity.ok(users);
+    public ResponseEntity<List<DisplayUserDto>> getAllUsers(
+        @Parameter(description = "Курсор следующей страницы из заголовка X-Next-Cursor")
+        @RequestParam(required = false) String after,
+        @Parameter(description = "Размер страницы (1-500)", example = "50") @RequestParam(required = false) Integer limit
+    ) {
+        return PageResponses.ok(userService.getAllUsers(after, limit));
     }
 
     @Operation(summary = "Получить пользователя по ID", description = "Возвращает пользователя по его идентификатору.")
@@ -94,15 +103,21 @@ public class UserController {
         return ResponseEntity.ok(updatedUser);
     }
 
-    @Operation(summary = "Удалить пользователя", description = "Удаляет пользователя по его идентификатору.")
+    @Operation(summary = "Удалить пользователя", description = "Удаляет пользователя по его идентификатору. С async=true удаление выполняется в фоне, а в ответе возвращается ID задачи.")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "204", description = "Пользователь успешно удален", content = @Content),
+        @ApiResponse(responseCode = "202", description = "Задача на удаление принята",
+            content = @Content(mediaType = "text/plain", schema = @Schema(type = "string", format = "UUID"))),
         @ApiResponse(responseCode = "404", description = "Пользователь не найден", content = @Content)
     })
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteUser(
-        @Parameter(description = "Идентификатор пользователя для удаления", example = "1") final @PathVariable Long id
+    public ResponseEntity<String> deleteUser(
+        @Parameter(description = "Идентификатор пользователя для удаления", example = "1") final @PathVariable Long id,
+        @Parameter(description = "Удалить в фоне", example = "false") final @RequestParam(defaultValue = "false") boolean async
     ) {
+        if (async) {
+            return DeletionController.accepted(deletionJobService.startUserDeletion(id));
+        }
         userService.deleteUser(id);
         return ResponseEntity.noContent().build();
     }
@@ -1,5 +1,8 @@
 package com.geml.taska.controllers;
 
+import com.geml.taska.config.RollingLatencyWindow;
+import com.geml.taska.dto.VisitDto;
+import com.geml.taska.dto.VisitWindowStatsDto;
 import com.geml.taska.service.VisitService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -8,16 +11,22 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import java.util.List;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
 
 @RestController
 @RequestMapping("/api/visits")
 @Tag(name = "Visit", description = "API for tracking website visits")
 public class VisitController {
+    private static final List<Integer> DEFAULT_WINDOWS = List.of(1, 5, 15);
+    private static final int MAX_TOP_ROUTES = 1000;
+
     private final VisitService visitService;
 
     public VisitController(VisitService visitService) {
@@ -33,15 +42,57 @@ public class VisitController {
         return ResponseEntity.ok().build();
     }
 
-    @Operation(summary = "Get visit count for a specific URL", description = "Retrieves the visit count for the given URL.")
+    @Operation(summary = "Get visit count for a specific route",
+        description = "Retrieves the visit count for the given route pattern and HTTP method.")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Visit count retrieved",
             content = @Content(mediaType = "application/json", schema = @Schema(type = "integer")))
     })
     @GetMapping("/result")
     public ResponseEntity<Long> getVisitCount(
-        @Parameter(description = "URL to get visit count for", example = "/some/path") @RequestParam String url
+        @Parameter(description = "Route pattern to get visit count for", example = "/api/notebooks/{id}") @RequestParam String url,
+        @Parameter(description = "HTTP method of the route", example = "GET") @RequestParam(defaultValue = "GET") String method
+    ) {
+        return ResponseEntity.ok(visitService.getVisitCount(method.toUpperCase(), url));
+    }
+
+    @Operation(summary = "Get most visited routes", description = "Retrieves the heaviest routes with their visit counts.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Top routes retrieved",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = VisitDto.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid limit", content = @Content)
+    })
+    @GetMapping("/top")
+    public ResponseEntity<List<VisitDto>> getTopRoutes(
+        @Parameter(description = "Maximum number of routes to return (1-" + MAX_TOP_ROUTES + ")", example = "20")
+        @RequestParam(defaultValue = "20") int limit
+    ) {
+        if (limit < 1 || limit > MAX_TOP_ROUTES) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "Limit must be between 1 and " + MAX_TOP_ROUTES);
+        }
+        return ResponseEntity.ok(visitService.getTopRoutes(limit));
+    }
+
+    @Operation(summary = "Get windowed route statistics",
+        description = "Retrieves throughput and p50/p95/p99 latency per route for the last 1, 5 and 15 minutes.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Statistics retrieved",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = VisitWindowStatsDto.class))),
+        @ApiResponse(responseCode = "400", description = "Unsupported window", content = @Content)
+    })
+    @GetMapping("/stats")
+    public ResponseEntity<List<VisitWindowStatsDto>> getWindowStats(
+        @Parameter(description = "Window length in minutes (1-15); all default windows when omitted", example = "5")
+        @RequestParam(required = false) Integer minutes
     ) {
-        return ResponseEntity.ok(visitService.getVisitCount(url));
+        if (minutes == null) {
+            return ResponseEntity.ok(visitService.getWindowStats(DEFAULT_WINDOWS));
+        }
+        if (minutes < 1 || minutes > RollingLatencyWindow.MAX_WINDOW_MINUTES) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "Window must be between 1 and " + RollingLatencyWindow.MAX_WINDOW_MINUTES + " minutes");
+        }
+        return ResponseEntity.ok(visitService.getWindowStats(List.of(minutes)));
     }
 }
@@ -0,0 +1,24 @@
+package com.geml.taska.dto;
+
+import com.geml.taska.service.DeletionJobService.DeletionStatus;
+import com.geml.taska.service.DeletionJobService.DeletionTarget;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeletionJobStatusDto {
+
+    private String id;
+    private DeletionTarget target;
+    private Long targetId;
+    private DeletionStatus status;
+    private long totalNotebooks;
+    private long deletedNotebooks;
+    private long totalTasks;
+    private long deletedTasks;
+    private String errorMessage;
+}
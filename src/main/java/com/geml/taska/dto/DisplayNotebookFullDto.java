@@ -1,6 +1,6 @@
 package com.geml.taska.dto;
 
-import java.util.Set;
+import java.util.List;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -15,5 +15,5 @@ public class DisplayNotebookFullDto {
     private String title;
     private String content;
     private DisplayTaskDto task;
-    private Set<DisplayTagDto> tags;
+    private List<DisplayTagDto> tags;
 }
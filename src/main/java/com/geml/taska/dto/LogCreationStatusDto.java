@@ -5,10 +5,14 @@ import com.geml.taska.service.AsyncLogService.LogStatus;
 public class LogCreationStatusDto {
     private final LogStatus status;
     private final String errorMessage;
+    private final long totalBytes;
+    private final long copiedBytes;
 
-    public LogCreationStatusDto(LogStatus status, String errorMessage) {
+    public LogCreationStatusDto(LogStatus status, String errorMessage, long totalBytes, long copiedBytes) {
         this.status = status;
         this.errorMessage = errorMessage;
+        this.totalBytes = totalBytes;
+        this.copiedBytes = copiedBytes;
     }
 
     public LogStatus getStatus() {
@@ -18,4 +22,12 @@ public class LogCreationStatusDto {
     public String getErrorMessage() {
         return errorMessage;
     }
+
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+
+    public long getCopiedBytes() {
+        return copiedBytes;
+    }
 }
@@ -0,0 +1,14 @@
+package com.geml.taska.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TagImportResultDto {
+
+    private long created;
+}
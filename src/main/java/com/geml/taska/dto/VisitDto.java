@@ -4,6 +4,7 @@ import lombok.Data;
 
 @Data
 public class VisitDto {
-    private String url;
+    private String route;
     private long visitCount;
+    private long error;
 }
@@ -0,0 +1,20 @@
+package com.geml.taska.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VisitWindowStatsDto {
+
+    private String route;
+    private int windowMinutes;
+    private long requests;
+    private double requestsPerSecond;
+    private double p50Millis;
+    private double p95Millis;
+    private double p99Millis;
+}
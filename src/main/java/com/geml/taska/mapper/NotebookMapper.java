@@ -6,7 +6,9 @@ import com.geml.taska.dto.DisplayNotebookFullDto;
 import com.geml.taska.dto.DisplayTagDto;
 import com.geml.taska.models.Notebook;
 import com.geml.taska.models.Tag;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 import org.springframework.stereotype.Component;
@@ -39,10 +41,10 @@ public class NotebookMapper {
     }
 
     public DisplayNotebookFullDto toDisplayNotebookFullDto(final Notebook nb) {
-        Set<DisplayTagDto> tags = new HashSet<>();
+        List<DisplayTagDto> tags = new ArrayList<>();
         if (nb.getTags() != null) {
             tags = nb.getTags().stream()
-                .map(tagMapper::toDisplayTagDto).collect(Collectors.toSet());
+                .map(tagMapper::toDisplayTagDto).collect(Collectors.toList());
         }
         return new DisplayNotebookFullDto(
                 nb.getId(),
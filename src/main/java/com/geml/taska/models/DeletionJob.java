@@ -0,0 +1,27 @@
+package com.geml.taska.models;
+
+import com.geml.taska.service.DeletionJobService.DeletionStatus;
+import com.geml.taska.service.DeletionJobService.DeletionTarget;
+import java.time.Instant;
+import lombok.Data;
+
+@Data
+public class DeletionJob {
+    private final String id;
+    private final DeletionTarget target;
+    private final Long targetId;
+    private volatile DeletionStatus status;
+    private volatile long totalNotebooks;
+    private volatile long deletedNotebooks;
+    private volatile long totalTasks;
+    private volatile long deletedTasks;
+    private volatile String errorMessage;
+    private volatile Instant finishedAt;
+
+    public DeletionJob(String id, DeletionTarget target, Long targetId) {
+        this.id = id;
+        this.target = target;
+        this.targetId = targetId;
+        this.status = DeletionStatus.QUEUED;
+    }
+}
@@ -1,17 +1,30 @@
 package com.geml.taska.models;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import com.geml.taska.service.AsyncLogService.LogStatus;
+import java.time.Instant;
+import java.time.LocalDate;
 import lombok.Data;
 
 @Data
 public class LogFile {
-    private String id;
-    private LogStatus status;
-    private String filePath;
-    private String errorMessage;
+    private final String id;
+    private final LocalDate date;
+    private volatile LogStatus status;
+    private volatile String filePath;
+    private volatile String errorMessage;
+    private volatile long totalBytes;
+    private volatile long copiedBytes;
+    private volatile Instant finishedAt;
+    @JsonIgnore
+    private volatile boolean cancelRequested;
 
-    public LogFile(String id) {
+    @JsonCreator
+    public LogFile(@JsonProperty("id") String id, @JsonProperty("date") LocalDate date) {
         this.id = id;
+        this.date = date;
         this.status = LogStatus.IN_PROGRESS;
     }
 }
@@ -0,0 +1,24 @@
+package com.geml.taska.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+
+@Entity
+@Table(name = "visit_stats")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VisitStat {
+
+    @Id
+    private String route;
+
+    @Column(name = "visit_count", nullable = false)
+    private long visitCount;
+}
@@ -2,15 +2,37 @@ package com.geml.taska.repository;
 
 import com.geml.taska.models.Board;
 import java.util.List;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface BoardRepository extends JpaRepository<Board, Long> {
-    @Query("SELECT t FROM Board t WHERE LOWER(t.title) LIKE LOWER(CONCAT('%', :title, '%'))")
-    List<Board> searchByTitle(@Param("title") String title);
+    @Query("""
+        SELECT t FROM Board t
+        WHERE LOWER(t.title) LIKE LOWER(CONCAT('%', :title, '%')) AND t.id > :afterId
+        ORDER BY t.id
+        """)
+    List<Board> searchByTitle(@Param("title") String title, @Param("afterId") Long afterId, Limit limit);
 
     List<Board> findByUserId(Long userId);
+
+    @Query("SELECT b.id FROM Board b WHERE b.user.id = :userId")
+    List<Long> findIdsByUserId(@Param("userId") Long userId);
+
+    @Modifying(clearAutomatically = true)
+    @Query(value = "DELETE FROM boards WHERE id = :id", nativeQuery = true)
+    int bulkDeleteById(@Param("id") Long id);
+
+    @Modifying
+    @Query(value = "DELETE FROM boards WHERE user_id = :userId", nativeQuery = true)
+    int bulkDeleteByUserId(@Param("userId") Long userId);
+
+    List<Board> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+    @Query("SELECT b.id, b.title, b.description FROM Board b WHERE b.id > :afterId ORDER BY b.id")
+    List<Object[]> findSearchDocuments(@Param("afterId") Long afterId, Limit limit);
 }
\ No newline at end of file
@@ -1,22 +1,125 @@
 package com.geml.taska.repository;
 
 import com.geml.taska.models.Notebook;
+import jakarta.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
-import java.util.Set;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface NotebookRepository extends JpaRepository<Notebook, Long> {
-    @Query("SELECT t FROM Notebook t WHERE LOWER(t.title) LIKE LOWER(CONCAT('%', :title, '%'))")
-    List<Notebook> searchByTitle(@Param("title") String title);
+    /**
+     * Full-text search over title and content through the GIN-indexed
+     * {@code search_vector} column from schema.sql, best matches first. Pages
+     * continue after the ({@code afterRank}, {@code afterId}) of the last hit.
+     */
+    @Query(value = """
+        SELECT n.id AS id, ts_rank(n.search_vector, query) AS rank
+        FROM notebooks n, websearch_to_tsquery('simple', :query) query
+        WHERE n.search_vector @@ query
+          AND (ts_rank(n.search_vector, query) < :afterRank
+            OR (ts_rank(n.search_vector, query) = :afterRank AND n.id > :afterId))
+        ORDER BY rank DESC, n.id
+        LIMIT :limit
+        """, nativeQuery = true)
+    List<NotebookSearchHit> searchByText(
+        @Param("query") String query,
+        @Param("afterRank") float afterRank,
+        @Param("afterId") long afterId,
+        @Param("limit") int limit
+    );
 
-    Set<Notebook> findByTagsId(Long tagId);
+    List<Notebook> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+    @Query("SELECT n.id, n.title, n.content FROM Notebook n WHERE n.id > :afterId ORDER BY n.id")
+    List<Object[]> findSearchDocuments(@Param("afterId") Long afterId, Limit limit);
 
     List<Notebook> findByTaskId(Long taskId);
 
+    @Query("SELECT n.id FROM Notebook n WHERE n.task.id = :taskId")
+    List<Long> findIdsByTaskId(@Param("taskId") Long taskId);
+
+    @Query("SELECT n.id FROM Notebook n WHERE n.task.board.id = :boardId")
+    List<Long> findIdsByBoardId(@Param("boardId") Long boardId);
+
+    @Query("SELECT n.id FROM Notebook n WHERE n.task.board.user.id = :userId")
+    List<Long> findIdsByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT n.id FROM Notebook n WHERE n.task.board.id = :boardId ORDER BY n.id")
+    List<Long> findIdsByBoardId(@Param("boardId") Long boardId, Limit limit);
+
+    @Query("SELECT n.id FROM Notebook n WHERE n.task.board.user.id = :userId ORDER BY n.id")
+    List<Long> findIdsByUserId(@Param("userId") Long userId, Limit limit);
+
+    @Query("SELECT n.id FROM Notebook n JOIN n.tags t WHERE t.id = :tagId")
+    List<Long> findIdsByTagId(@Param("tagId") Long tagId);
+
+    @Query("SELECT n.id FROM Notebook n WHERE n.task.id IN :taskIds")
+    List<Long> findIdsByTaskIds(@Param("taskIds") Collection<Long> taskIds);
+
+    long countByTaskBoardId(Long boardId);
+
+    long countByTaskBoardUserId(Long userId);
+
+    @Modifying
+    @Query(value = "DELETE FROM notebook_tags WHERE notebook_id IN (:ids)", nativeQuery = true)
+    int bulkDeleteTagLinksByNotebookIds(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = """
+        DELETE FROM notebook_tags
+        WHERE notebook_id IN (SELECT id FROM notebooks WHERE task_id = :taskId)
+        """, nativeQuery = true)
+    int bulkDeleteTagLinksByTaskId(@Param("taskId") Long taskId);
+
+    @Modifying
+    @Query(value = """
+        DELETE FROM notebook_tags
+        WHERE notebook_id IN (
+            SELECT n.id FROM notebooks n JOIN tasks t ON t.id = n.task_id
+            WHERE t.board_id = :boardId)
+        """, nativeQuery = true)
+    int bulkDeleteTagLinksByBoardId(@Param("boardId") Long boardId);
+
+    @Modifying
+    @Query(value = """
+        DELETE FROM notebook_tags
+        WHERE notebook_id IN (
+            SELECT n.id FROM notebooks n
+            JOIN tasks t ON t.id = n.task_id
+            JOIN boards b ON b.id = t.board_id
+            WHERE b.user_id = :userId)
+        """, nativeQuery = true)
+    int bulkDeleteTagLinksByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query(value = "DELETE FROM notebooks WHERE task_id = :taskId", nativeQuery = true)
+    int bulkDeleteByTaskId(@Param("taskId") Long taskId);
+
+    @Modifying
+    @Query(value = """
+        DELETE FROM notebooks
+        WHERE task_id IN (SELECT id FROM tasks WHERE board_id = :boardId)
+        """, nativeQuery = true)
+    int bulkDeleteByBoardId(@Param("boardId") Long boardId);
+
+    @Modifying
+    @Query(value = """
+        DELETE FROM notebooks
+        WHERE task_id IN (
+            SELECT t.id FROM tasks t JOIN boards b ON b.id = t.board_id
+            WHERE b.user_id = :userId)
+        """, nativeQuery = true)
+    int bulkDeleteByUserId(@Param("userId") Long userId);
+
     @Query(value = """
         SELECT
             n.id AS notebook_id,
@@ -35,10 +138,41 @@ public interface NotebookRepository extends JpaRepository<Notebook, Long> {
         LEFT JOIN
             tasks task ON n.task_id = task.id
         WHERE (:tagName IS NULL OR LOWER(t.name) LIKE LOWER(CONCAT('%', :tagName, '%')))
+        ORDER BY n.id, t.id
         """, nativeQuery = true)
     List<Object[]> findAllNotebooksFullWithTagFilter(@Param("tagName") String tagName);
 
-    @Query("SELECT n FROM Notebook n WHERE n.task.id = :taskId")
+    /**
+     * Same rows as {@link #findAllNotebooksFullWithTagFilter}, read through a
+     * forward-only cursor. Must be consumed and closed inside a transaction.
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(value = """
+        SELECT
+            n.id AS notebook_id,
+            n.title AS notebook_title,
+            n.content AS notebook_content,
+            t.id AS tag_id,
+            t.name AS tag_name,
+            task.id AS task_id,
+            task.title AS task_title
+        FROM
+            notebooks n
+        LEFT JOIN
+            notebook_tags nt ON n.id = nt.notebook_id
+        LEFT JOIN
+            tags t ON nt.tag_id = t.id
+        LEFT JOIN
+            tasks task ON n.task_id = task.id
+        WHERE (:tagName IS NULL OR LOWER(t.name) LIKE LOWER(CONCAT('%', :tagName, '%')))
+        ORDER BY n.id, t.id
+        """, nativeQuery = true)
+    Stream<Object[]> streamNotebooksFullWithTagFilter(@Param("tagName") String tagName);
+
+    @Query("SELECT n FROM Notebook n WHERE n.task.id = :taskId ORDER BY n.id")
     List<Notebook> findByTaskIdFilter(@Param("taskId") Long taskId);
 
     @Query(value = """
@@ -59,6 +193,7 @@ public interface NotebookRepository extends JpaRepository<Notebook, Long> {
         LEFT JOIN
             tasks task ON n.task_id = task.id
         WHERE (:taskId IS NULL OR task.id = :taskId)
+        ORDER BY n.id, t.id
         """, nativeQuery = true)
     List<Object[]> findAllNotebooksFullWithTagAndTaskFilter(@Param("taskId") Long taskId);
 
@@ -0,0 +1,7 @@
+package com.geml.taska.repository;
+
+public interface NotebookSearchHit {
+    Long getId();
+
+    Float getRank();
+}
@@ -2,10 +2,35 @@ package com.geml.taska.repository;
 
 import com.geml.taska.models.Tag;
 import java.util.List;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface TagRepository extends JpaRepository<Tag, Long> {
     List<Tag> findByUserId(Long userId);
+
+    @Modifying
+    @Query(value = "DELETE FROM notebook_tags WHERE tag_id = :tagId", nativeQuery = true)
+    int bulkDeleteNotebookLinksByTagId(@Param("tagId") Long tagId);
+
+    @Modifying(clearAutomatically = true)
+    @Query(value = "DELETE FROM tags WHERE id = :id", nativeQuery = true)
+    int bulkDeleteById(@Param("id") Long id);
+
+    @Modifying
+    @Query(value = """
+        DELETE FROM notebook_tags
+        WHERE tag_id IN (SELECT id FROM tags WHERE user_id = :userId)
+        """, nativeQuery = true)
+    int bulkDeleteNotebookLinksByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query(value = "DELETE FROM tags WHERE user_id = :userId", nativeQuery = true)
+    int bulkDeleteByUserId(@Param("userId") Long userId);
+
+    List<Tag> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
 }
\ No newline at end of file
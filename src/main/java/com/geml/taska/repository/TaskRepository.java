@@ -2,10 +2,47 @@ package com.geml.taska.repository;
 
 import com.geml.taska.models.Task;
 import java.util.List;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface TaskRepository extends JpaRepository<Task, Long> {
     List<Task> findByBoardId(Long taskBoardId);
+
+    List<Task> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+    @Query("SELECT t.id FROM Task t WHERE t.board.id = :boardId")
+    List<Long> findIdsByBoardId(@Param("boardId") Long boardId);
+
+    @Query("SELECT t.id FROM Task t WHERE t.board.user.id = :userId")
+    List<Long> findIdsByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT t.id FROM Task t WHERE t.board.id = :boardId ORDER BY t.id")
+    List<Long> findIdsByBoardId(@Param("boardId") Long boardId, Limit limit);
+
+    @Query("SELECT t.id FROM Task t WHERE t.board.user.id = :userId ORDER BY t.id")
+    List<Long> findIdsByUserId(@Param("userId") Long userId, Limit limit);
+
+    long countByBoardId(Long boardId);
+
+    long countByBoardUserId(Long userId);
+
+    @Modifying(clearAutomatically = true)
+    @Query(value = "DELETE FROM tasks WHERE id = :id", nativeQuery = true)
+    int bulkDeleteById(@Param("id") Long id);
+
+    @Modifying
+    @Query(value = "DELETE FROM tasks WHERE board_id = :boardId", nativeQuery = true)
+    int bulkDeleteByBoardId(@Param("boardId") Long boardId);
+
+    @Modifying
+    @Query(value = """
+        DELETE FROM tasks
+        WHERE board_id IN (SELECT id FROM boards WHERE user_id = :userId)
+        """, nativeQuery = true)
+    int bulkDeleteByUserId(@Param("userId") Long userId);
 }
\ No newline at end of file
@@ -1,9 +1,19 @@
 package com.geml.taska.repository;
 
 import com.geml.taska.models.User;
+import java.util.List;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
+    List<User> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+    @Modifying(clearAutomatically = true)
+    @Query(value = "DELETE FROM users WHERE id = :id", nativeQuery = true)
+    int bulkDeleteById(@Param("id") Long id);
 }
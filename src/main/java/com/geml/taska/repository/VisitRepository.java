@@ -1,26 +1,120 @@
 package com.geml.taska.repository;
 
 import com.geml.taska.dto.VisitDto;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public class VisitRepository {
 
-    private final Map<String, VisitDto> visitMap = new ConcurrentHashMap<>();
+    private final Map<String, VisitCounter> visitMap = new ConcurrentHashMap<>();
+    private final Object flushLock = new Object();
+    private final int maxTrackedRoutes;
 
-    public Optional<VisitDto> findByUrl(String url) {
-        return Optional.ofNullable(visitMap.get(url));
+    public VisitRepository(@Value("${visits.max-tracked-routes:1000}") int maxTrackedRoutes) {
+        if (maxTrackedRoutes <= 0) {
+            throw new IllegalArgumentException("visits.max-tracked-routes must be positive");
+        }
+        this.maxTrackedRoutes = maxTrackedRoutes;
     }
 
-    public synchronized VisitDto save(VisitDto visitDto) {
-        visitMap.put(visitDto.getUrl(), visitDto);
+    public void increment(String route) {
+        VisitCounter counter = visitMap.get(route);
+        if (counter == null) {
+            counter = admit(route);
+        }
+        counter.count.increment();
+    }
+
+    /**
+     * Space-Saving admission: once the table is full the least counted route
+     * is replaced and the newcomer inherits its count as the error bound.
+     */
+    private synchronized VisitCounter admit(String route) {
+        VisitCounter counter = visitMap.get(route);
+        if (counter != null) {
+            return counter;
+        }
+        long inherited = 0;
+        if (visitMap.size() >= maxTrackedRoutes) {
+            String victim = null;
+            for (Map.Entry<String, VisitCounter> entry : visitMap.entrySet()) {
+                long count = entry.getValue().count.sum();
+                if (victim == null || count < inherited) {
+                    victim = entry.getKey();
+                    inherited = count;
+                }
+            }
+            visitMap.remove(victim);
+        }
+        counter = new VisitCounter(inherited);
+        visitMap.put(route, counter);
+        return counter;
+    }
+
+    public Optional<VisitDto> findByRoute(String route) {
+        return Optional.ofNullable(visitMap.get(route))
+            .map(counter -> toDto(route, counter));
+    }
+
+    public List<VisitDto> findAll() {
+        return visitMap.entrySet().stream()
+            .map(entry -> toDto(entry.getKey(), entry.getValue()))
+            .toList();
+    }
+
+    /**
+     * Returns visits counted since the previous flush and marks them as flushed.
+     * Routes evicted before a flush lose their unflushed visits.
+     */
+    public Map<String, Long> collectUnflushed() {
+        Map<String, Long> deltas = new HashMap<>();
+        synchronized (flushLock) {
+            visitMap.forEach((route, counter) -> {
+                long observed = counter.count.sum() - counter.error;
+                long delta = observed - counter.flushed;
+                if (delta > 0) {
+                    counter.flushed = observed;
+                    deltas.put(route, delta);
+                }
+            });
+        }
+        return deltas;
+    }
+
+    public void restoreUnflushed(Map<String, Long> deltas) {
+        synchronized (flushLock) {
+            deltas.forEach((route, delta) -> {
+                VisitCounter counter = visitMap.get(route);
+                if (counter != null) {
+                    counter.flushed -= delta;
+                }
+            });
+        }
+    }
+
+    private VisitDto toDto(String route, VisitCounter counter) {
+        VisitDto visitDto = new VisitDto();
+        visitDto.setRoute(route);
+        visitDto.setVisitCount(counter.count.sum() - counter.error - counter.flushed);
+        visitDto.setError(counter.error);
         return visitDto;
     }
 
-    public void deleteAll() {
-        visitMap.clear();
+    private static final class VisitCounter {
+        private final LongAdder count = new LongAdder();
+        private final long error;
+        private volatile long flushed;
+
+        private VisitCounter(long error) {
+            this.error = error;
+            count.add(error);
+        }
     }
 }
@@ -0,0 +1,19 @@
+package com.geml.taska.repository;
+
+import com.geml.taska.models.VisitStat;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface VisitStatRepository extends JpaRepository<VisitStat, String> {
+    @Modifying
+    @Query(value = """
+        INSERT INTO visit_stats (route, visit_count)
+        VALUES (:route, :delta)
+        ON CONFLICT (route) DO UPDATE SET visit_count = visit_stats.visit_count + EXCLUDED.visit_count
+        """, nativeQuery = true)
+    void addVisits(@Param("route") String route, @Param("delta") long delta);
+}
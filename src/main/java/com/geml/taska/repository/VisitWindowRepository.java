@@ -0,0 +1,32 @@
+package com.geml.taska.repository;
+
+import com.geml.taska.config.RollingLatencyWindow;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public class VisitWindowRepository {
+    private static final String OVERFLOW_ROUTE = "<other>";
+
+    private final Map<String, RollingLatencyWindow> windows = new ConcurrentHashMap<>();
+    private final int maxWindowedRoutes;
+
+    public VisitWindowRepository(@Value("${visits.max-windowed-routes:256}") int maxWindowedRoutes) {
+        this.maxWindowedRoutes = maxWindowedRoutes;
+    }
+
+    public void record(String route, long epochMillis, long latencyMicros) {
+        RollingLatencyWindow window = windows.get(route);
+        if (window == null) {
+            String key = windows.size() < maxWindowedRoutes ? route : OVERFLOW_ROUTE;
+            window = windows.computeIfAbsent(key, k -> new RollingLatencyWindow());
+        }
+        window.record(epochMillis, latencyMicros);
+    }
+
+    public Map<String, RollingLatencyWindow> findAll() {
+        return Map.copyOf(windows);
+    }
+}
@@ -1,98 +1,408 @@
 package com.geml.taska.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.geml.taska.dto.LogCreationStatusDto;
 import com.geml.taska.models.LogFile;
-import java.io.BufferedWriter;
-import java.io.FileWriter;
+import jakarta.annotation.PostConstruct;
 import java.io.IOException;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
-import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 
+/**
+ * Combines the rolled log files of a day into one file in the background.
+ * Files are appended by channel transfers of up to {@code TRANSFER_CHUNK_BYTES},
+ * which lets the kernel copy between the files without passing the data
+ * through the heap, and progress is reported in bytes after every chunk.
+ * A request for a day already being combined, or combined from the same
+ * source bytes, gets the existing job instead of a new one.
+ *
+ * <p>Combined files are written to {@code logs.export.directory}, apart from
+ * the rolled files they are built from. Each finished job is saved next to
+ * its file as {@code <id>.json} and reloaded on startup. Finished jobs are
+ * evicted, files included, once older than {@code logs.export.ttl}. A new
+ * job reserves its size within {@code logs.export.max-bytes} when it is
+ * created, evicting the oldest combined files early to make room, and is
+ * refused if running jobs already hold the rest of the quota.
+ */
 @Service
 @Slf4j
 public class AsyncLogService {
 
-    private static final String LOG_DIRECTORY = "logs/";
     private static final String DATE_FORMAT_PATTERN = "yyyy-MM-dd";
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern(DATE_FORMAT_PATTERN);
-    private final Map<String, LogFile> logFiles = new ConcurrentHashMap<>();
+    private static final long TRANSFER_CHUNK_BYTES = 8L * 1024 * 1024;
+    private static final String METADATA_SUFFIX = ".json";
+    private static final String PARTIAL_SUFFIX = ".part";
 
-    @Async
-    public CompletableFuture<String> createLogFileAsync(LocalDate date) {
-        String logId = UUID.randomUUID().toString();
-        LogFile logFile = new LogFile(logId);
-        logFiles.put(logId, logFile);
+    private final Executor executor;
+    private final ObjectMapper objectMapper;
+    private final Path logDirectory;
+    private final Path exportDirectory;
+    private final Duration ttl;
+    private final long maxBytes;
+    private final Map<String, LogFile> logFiles = new ConcurrentHashMap<>();
+    private final Map<LocalDate, LogFile> latestByDate = new ConcurrentHashMap<>();
 
-        CompletableFuture.runAsync(() -> {
-            try {
-                Thread.sleep(15000);
 
-                String logFileNamePattern = "app-" + date.format(DATE_FORMATTER) + ".*.log";
-                Path logDirectoryPath = Paths.get(LOG_DIRECTORY);
+    public AsyncLogService(
+        @Qualifier("logExecutor") final Executor executor,
+        final ObjectMapper objectMapper,
+        @Value("${logs.directory:logs}") final String logDirectory,
+        @Value("${logs.export.directory:logs/exports}") final String exportDirectory,
+        @Value("${logs.export.ttl:24h}") final Duration ttl,
+        @Value("${logs.export.max-bytes:1073741824}") final long maxBytes
+    ) {
+        this.executor = executor;
+        this.objectMapper = objectMapper;
+        this.logDirectory = Paths.get(logDirectory);
+        this.exportDirectory = Paths.get(exportDirectory);
+        this.ttl = ttl;
+        this.maxBytes = maxBytes;
+    }
 
-                if (!Files.exists(logDirectoryPath) || !Files.isDirectory(logDirectoryPath)) {
-                    logFile.setStatus(LogStatus.FAILED);
-                    logFile.setErrorMessage("Log directory not found");
-                    log.error("Log directory not found");
-                    return;
+    /**
+     * Restores the jobs finished before the last shutdown and drops what a
+     * crash left behind: partial files, and combined files whose job was
+     * never saved.
+     */
+    @PostConstruct
+    public void loadFinishedJobs() throws IOException {
+        if (!Files.isDirectory(exportDirectory)) {
+            return;
+        }
+        try (Stream<Path> files = Files.list(exportDirectory)) {
+            for (Path path : (Iterable<Path>) files::iterator) {
+                String name = path.getFileName().toString();
+                if (name.endsWith(METADATA_SUFFIX)) {
+                    loadFinishedJob(path);
+                } else if (name.endsWith(PARTIAL_SUFFIX)) {
+                    Files.deleteIfExists(path);
                 }
+            }
+        }
+        try (Stream<Path> files = Files.list(exportDirectory)) {
+            for (Path path : (Iterable<Path>) files::iterator) {
+                String name = path.getFileName().toString();
+                if (name.endsWith(".log") && logFiles.values().stream()
+                    .noneMatch(logFile -> logFile.getFilePath() != null
+                        && Paths.get(logFile.getFilePath()).getFileName().equals(path.getFileName()))) {
+                    Files.deleteIfExists(path);
+                }
+            }
+        }
+        log.info("Loaded {} finished log file jobs", logFiles.size());
+    }
 
-                List<Path> matchingFiles = Files.list(logDirectoryPath)
-                    .filter(path -> path.getFileName().toString()
-                        .matches(logFileNamePattern.replace(".", "\\.")
-                            .replace("*", ".*")))
-                    .toList();
-
-                if (matchingFiles.isEmpty()) {
-                    logFile.setStatus(LogStatus.FAILED);
-                    logFile.setErrorMessage("Log files not found for date: " + date);
-                    log.error("Log files not found for date: {}", date);
-                    return;
+    private void loadFinishedJob(Path metadata) throws IOException {
+        LogFile logFile;
+        try {
+            logFile = objectMapper.readValue(metadata.toFile(), LogFile.class);
+        } catch (IOException e) {
+            log.warn("Dropping unreadable log file job {}", metadata, e);
+            Files.deleteIfExists(metadata);
+            return;
+        }
+        if (logFile.getStatus() == LogStatus.COMPLETED
+            && (logFile.getFilePath() == null || !Files.exists(Paths.get(logFile.getFilePath())))) {
+            Files.deleteIfExists(metadata);
+            return;
+        }
+        logFiles.put(logFile.getId(), logFile);
+        if (logFile.getStatus() == LogStatus.COMPLETED) {
+            latestByDate.merge(logFile.getDate(), logFile,
+                (previous, loaded) -> loaded.getFinishedAt().isAfter(previous.getFinishedAt()) ? loaded : previous);
+        }
+    }
+
+    public String createLogFile(final LocalDate date) throws IOException {
+        List<Path> sources = findRolledLogFiles(date);
+        if (sources.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Log files not found for date: " + date);
+        }
+        long[] sizes = new long[sources.size()];
+        long totalBytes = 0;
+        for (int i = 0; i < sizes.length; i++) {
+            sizes[i] = Files.size(sources.get(i));
+            totalBytes += sizes[i];
+        }
+        if (totalBytes > maxBytes) {
+            throw new ResponseStatusException(HttpStatus.INSUFFICIENT_STORAGE,
+                "Log files for " + date + " exceed the export quota");
+        }
+
+        long sourceBytes = totalBytes;
+        LogFile created = new LogFile(UUID.randomUUID().toString(), date);
+        created.setTotalBytes(sourceBytes);
+        LogFile job = latestByDate.compute(date,
+            (key, previous) -> isReusable(previous, sourceBytes) ? previous : created);
+        if (job != created) {
+            log.info("Reusing log file job {} for {}", job.getId(), date);
+            return job.getId();
+        }
+
+        try {
+            reserve(created);
+        } catch (ResponseStatusException e) {
+            latestByDate.remove(date, created);
+            throw e;
+        }
+        try {
+            executor.execute(() -> combine(created, sources, sizes));
+        } catch (RejectedExecutionException e) {
+            logFiles.remove(created.getId());
+            latestByDate.remove(date, created);
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many log file jobs", e);
+        }
+        log.info("Started log file job {} for {} ({} bytes)", created.getId(), date, sourceBytes);
+        return created.getId();
+    }
+
+    private static boolean isReusable(LogFile previous, long sourceBytes) {
+        if (previous == null) {
+            return false;
+        }
+        if (previous.getStatus() == LogStatus.IN_PROGRESS) {
+            return !previous.isCancelRequested();
+        }
+        return previous.getStatus() == LogStatus.COMPLETED
+            && previous.getTotalBytes() == sourceBytes
+            && Files.exists(Paths.get(previous.getFilePath()));
+    }
+
+    /**
+     * Copies each source up to the size it had when the job was created, so
+     * the file still being written to does not make the job chase its tail.
+     * The output is written under a temporary name and renamed once complete.
+     */
+    private void combine(LogFile logFile, List<Path> sources, long[] sizes) {
+        long start = System.nanoTime();
+        Path combined = exportDirectory.resolve(
+            "app-" + logFile.getDate().format(DATE_FORMATTER) + "-" + logFile.getId() + ".log");
+        Path partial = exportDirectory.resolve(combined.getFileName() + PARTIAL_SUFFIX);
+        try {
+            Files.createDirectories(exportDirectory);
+            try (FileChannel out = FileChannel.open(partial,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                for (int i = 0; i < sizes.length && !logFile.isCancelRequested(); i++) {
+                    append(logFile, sources.get(i), sizes[i], out);
                 }
+            }
+            if (logFile.isCancelRequested()) {
+                Files.deleteIfExists(partial);
+                latestByDate.remove(logFile.getDate(), logFile);
+                finish(logFile, LogStatus.CANCELLED);
+                log.info("Log file job {} cancelled", logFile.getId());
+                return;
+            }
+            Files.move(partial, combined, StandardCopyOption.REPLACE_EXISTING);
+            logFile.setFilePath(combined.toString());
+            finish(logFile, LogStatus.COMPLETED);
+            log.info("Log file job {} completed in {} ms", logFile.getId(), (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException | RuntimeException e) {
+            try {
+                Files.deleteIfExists(partial);
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            logFile.setErrorMessage(e.getMessage());
+            latestByDate.remove(logFile.getDate(), logFile);
+            finish(logFile, LogStatus.FAILED);
+            log.error("Error creating log file", e);
+        }
+    }
 
-                String combinedLogFileName = "app-" + date.format(DATE_FORMATTER) + "-" + logId + ".log";
-                Path combinedLogFilePath = Paths.get(LOG_DIRECTORY, combinedLogFileName);
-                Files.createDirectories(combinedLogFilePath.getParent());
-
-                try (BufferedWriter writer = new BufferedWriter(new FileWriter(combinedLogFilePath.toFile()))) {
-                    for (Path logFilePath : matchingFiles) {
-                        List<String> lines = Files.readAllLines(logFilePath);
-                        for (String line : lines) {
-                            writer.write(line);
-                            writer.newLine();
-                        }
-                    }
+    private static void append(LogFile logFile, Path source, long size, FileChannel out) throws IOException {
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ)) {
+            long position = 0;
+            while (position < size && !logFile.isCancelRequested()) {
+                long transferred = in.transferTo(position, Math.min(TRANSFER_CHUNK_BYTES, size - position), out);
+                if (transferred <= 0) {
+                    break;
                 }
+                position += transferred;
+                logFile.setCopiedBytes(logFile.getCopiedBytes() + transferred);
+            }
+        }
+    }
+
+    /**
+     * Marks the job finished and saves it, so its status survives a restart.
+     * Metadata is written under a temporary name and renamed, so a crash never
+     * leaves a truncated record behind.
+     */
+    private void finish(LogFile logFile, LogStatus status) {
+        logFile.setFinishedAt(Instant.now());
+        logFile.setStatus(status);
+        Path metadata = metadataPath(logFile);
+        Path partial = exportDirectory.resolve(metadata.getFileName() + PARTIAL_SUFFIX);
+        try {
+            Files.createDirectories(exportDirectory);
+            objectMapper.writeValue(partial.toFile(), logFile);
+            Files.move(partial, metadata, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            log.error("Failed to save log file job {}", logFile.getId(), e);
+        }
+    }
 
-                logFile.setStatus(LogStatus.COMPLETED);
-                logFile.setFilePath(combinedLogFilePath.toString());
-            } catch (IOException | InterruptedException e) {
-                logFile.setStatus(LogStatus.FAILED);
-                logFile.setErrorMessage(e.getMessage());
-                log.error("Error creating log file", e);
+    /**
+     * Asks a running job to stop after the chunk it is copying. Finished jobs
+     * cannot be cancelled.
+     */
+    public LogCreationStatusDto cancelLogFile(UUID logId) {
+        LogFile logFile = logFiles.get(logId.toString());
+        if (logFile == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Log creation task not found");
+        }
+        if (logFile.getStatus() != LogStatus.IN_PROGRESS) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Log creation task is already finished");
+        }
+        logFile.setCancelRequested(true);
+        return toStatus(logFile);
+    }
+
+    @Scheduled(
+        fixedDelayString = "${logs.export.cleanup-interval-ms:600000}",
+        initialDelayString = "${logs.export.cleanup-interval-ms:600000}"
+    )
+    public synchronized void evictExpired() {
+        Instant expiry = Instant.now().minus(ttl);
+        finishedOldestFirst()
+            .filter(logFile -> !logFile.getFinishedAt().isAfter(expiry))
+            .forEach(this::evict);
+        enforceQuota();
+    }
+
+    /**
+     * Registers a new job with its size reserved against the quota, evicting
+     * the oldest combined files to make room. Running jobs keep their
+     * reservation until they finish; a failed or cancelled job releases it.
+     */
+    private synchronized void reserve(LogFile logFile) {
+        long used = freeUpTo(maxBytes - logFile.getTotalBytes());
+        if (used + logFile.getTotalBytes() > maxBytes) {
+            throw new ResponseStatusException(HttpStatus.INSUFFICIENT_STORAGE,
+                "Export quota is taken by running log file jobs");
+        }
+        logFiles.put(logFile.getId(), logFile);
+    }
+
+    private synchronized void enforceQuota() {
+        freeUpTo(maxBytes);
+    }
+
+    /**
+     * Evicts the oldest combined files until the reserved bytes, those of
+     * completed and running jobs, are within {@code limit}, and returns them.
+     */
+    private long freeUpTo(long limit) {
+        long used = logFiles.values().stream()
+            .filter(logFile -> logFile.getStatus() == LogStatus.COMPLETED
+                || logFile.getStatus() == LogStatus.IN_PROGRESS)
+            .mapToLong(LogFile::getTotalBytes)
+            .sum();
+        for (LogFile logFile : finishedOldestFirst().toList()) {
+            if (used <= limit) {
+                break;
+            }
+            if (logFile.getStatus() == LogStatus.COMPLETED) {
+                used -= logFile.getTotalBytes();
+                evict(logFile);
             }
-        });
+        }
+        return used;
+    }
+
+    private Stream<LogFile> finishedOldestFirst() {
+        return logFiles.values().stream()
+            .filter(logFile -> logFile.getFinishedAt() != null)
+            .sorted(Comparator.comparing(LogFile::getFinishedAt));
+    }
+
+    private void evict(LogFile logFile) {
+        logFiles.remove(logFile.getId());
+        latestByDate.remove(logFile.getDate(), logFile);
+        try {
+            if (logFile.getFilePath() != null) {
+                Files.deleteIfExists(Paths.get(logFile.getFilePath()));
+            }
+            Files.deleteIfExists(metadataPath(logFile));
+            log.info("Evicted log file job {}", logFile.getId());
+        } catch (IOException e) {
+            log.error("Failed to delete files of log file job {}", logFile.getId(), e);
+        }
+    }
+
+    private Path metadataPath(LogFile logFile) {
+        return exportDirectory.resolve(logFile.getId() + METADATA_SUFFIX);
+    }
+
+    /**
+     * Returns the rolled log files of a day in rotation order, oldest first,
+     * or an empty list if there are none.
+     */
+    public List<Path> findRolledLogFiles(LocalDate date) throws IOException {
+        if (!Files.isDirectory(logDirectory)) {
+            return List.of();
+        }
+        Pattern rolledFile = Pattern.compile("app-" + Pattern.quote(date.format(DATE_FORMATTER)) + "\\.(\\d+)\\.log");
+        try (Stream<Path> files = Files.list(logDirectory)) {
+            return files
+                .filter(path -> rolledFile.matcher(path.getFileName().toString()).matches())
+                .sorted(Comparator.comparingLong(path -> rotationIndex(rolledFile, path)))
+                .toList();
+        }
+    }
 
-        return CompletableFuture.completedFuture(logId);
+    /**
+     * Returns the path of one rolled log file of a day, whether or not it
+     * exists.
+     */
+    public Path rolledLogFile(LocalDate date, int rotation) {
+        return logDirectory.resolve("app-" + date.format(DATE_FORMATTER) + "." + rotation + ".log");
+    }
+
+    private static long rotationIndex(Pattern rolledFile, Path path) {
+        Matcher matcher = rolledFile.matcher(path.getFileName().toString());
+        matcher.matches();
+        return Long.parseLong(matcher.group(1));
     }
 
     public LogCreationStatusDto getLogCreationStatus(UUID logId) {
         LogFile logFile = logFiles.get(logId.toString());
         if (logFile == null) {
-            return new LogCreationStatusDto(LogStatus.NOT_FOUND, "Log file not found");
+            return new LogCreationStatusDto(LogStatus.NOT_FOUND, "Log file not found", 0, 0);
         }
-        return new LogCreationStatusDto(logFile.getStatus(), logFile.getErrorMessage());
+        return toStatus(logFile);
+    }
+
+    private static LogCreationStatusDto toStatus(LogFile logFile) {
+        return new LogCreationStatusDto(logFile.getStatus(), logFile.getErrorMessage(),
+            logFile.getTotalBytes(), logFile.getCopiedBytes());
     }
 
     public LogFile getLogFile(UUID logId) {
@@ -100,6 +410,6 @@ public class AsyncLogService {
     }
 
     public enum LogStatus {
-        IN_PROGRESS, COMPLETED, FAILED, NOT_FOUND
+        IN_PROGRESS, COMPLETED, FAILED, CANCELLED, NOT_FOUND
     }
 }
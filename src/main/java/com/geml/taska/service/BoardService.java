@@ -1,16 +1,19 @@
 package com.geml.taska.service;
 
 import com.geml.taska.dto.CreateBoardDto;
+import com.geml.taska.dto.CursorPageDto;
 import com.geml.taska.dto.DisplayBoardDto;
 import com.geml.taska.mapper.BoardMapper;
 import com.geml.taska.models.Board;
-import com.geml.taska.models.Task;
 import com.geml.taska.models.User;
 import com.geml.taska.repository.BoardRepository;
+import com.geml.taska.repository.NotebookRepository;
 import com.geml.taska.repository.TaskRepository;
 import com.geml.taska.repository.UserRepository;
 import jakarta.transaction.Transactional;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
@@ -22,32 +25,56 @@ public class BoardService {
     private final BoardRepository boardRepository;
     private final BoardMapper boardMapper;
     private final TaskRepository taskRepository;
+    private final NotebookRepository notebookRepository;
     private final UserRepository userRepository;
-    private final TaskService taskService;
+    private final NotebookService notebookService;
+    private final SearchIndexService searchIndexService;
 
 
     public BoardService(
         final BoardRepository boardRepository,
         final BoardMapper boardMapper,
         final TaskRepository taskRepository,
+        final NotebookRepository notebookRepository,
         final UserRepository userRepository,
-        final TaskService taskService 
+        final NotebookService notebookService,
+        final SearchIndexService searchIndexService
     ) {
         this.boardRepository = boardRepository;
         this.boardMapper = boardMapper;
         this.taskRepository = taskRepository;
+        this.notebookRepository = notebookRepository;
         this.userRepository = userRepository;
-        this.taskService = taskService;
+        this.notebookService = notebookService;
+        this.searchIndexService = searchIndexService;
     }
 
 
-    public List<DisplayBoardDto> getAllBoards(final String title) {
+    public CursorPageDto<DisplayBoardDto> getAllBoards(
+        final String title, final String after, final Integer limit
+    ) {
+        int pageSize = KeysetCursor.limit(limit);
+        long afterId = KeysetCursor.decode(after);
+        if (title != null && !title.isEmpty() && searchIndexService.isBoardIndexReady()) {
+            return searchIndexedBoards(title, afterId, pageSize);
+        }
         List<Board> tasks = (title != null && !title.isEmpty())
-            ? boardRepository.searchByTitle(title)
-            : boardRepository.findAll();
+            ? boardRepository.searchByTitle(title, afterId, KeysetCursor.fetchLimit(pageSize))
+            : boardRepository.findByIdGreaterThanOrderByIdAsc(afterId, KeysetCursor.fetchLimit(pageSize));
 
-        return tasks.stream()
-                .map(boardMapper::toDisplayBoardDto).toList();
+        return KeysetCursor.page(tasks.stream()
+                .map(boardMapper::toDisplayBoardDto).toList(), pageSize, DisplayBoardDto::getId);
+    }
+
+
+    private CursorPageDto<DisplayBoardDto> searchIndexedBoards(String query, long afterId, int pageSize) {
+        CursorPageDto<Long> page = KeysetCursor.page(
+            searchIndexService.searchBoards(query, afterId, pageSize + 1), pageSize, Long::longValue);
+        List<DisplayBoardDto> boards = boardRepository.findAllById(page.getItems()).stream()
+            .map(boardMapper::toDisplayBoardDto)
+            .sorted(Comparator.comparing(DisplayBoardDto::getId))
+            .toList();
+        return new CursorPageDto<>(boards, page.getNextCursor());
     }
 
 
@@ -66,30 +93,62 @@ public class BoardService {
             .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
         board.setUser(user);
         Board saved = boardRepository.save(board);
+        searchIndexService.indexBoard(saved.getId(), saved.getTitle(), saved.getDescription());
         return boardMapper.toDisplayBoardDto(saved);
     }
 
 
+    /**
+     * Creates all boards in one transaction, resolving their users with one
+     * query and writing the rows in JDBC batches.
+     */
+    @Transactional
+    public List<DisplayBoardDto> createBoards(final List<CreateBoardDto> dtos) {
+        BulkRequests.checkSize(dtos, "Board");
+        Map<Long, User> users = EntityLookup.findAllById(userRepository,
+            dtos.stream().map(CreateBoardDto::getUserId).toList(), User::getId, "Users");
+        List<Board> boards = dtos.stream()
+            .map(dto -> {
+                Board board = boardMapper.fromCreateBoardDto(dto);
+                board.setUser(users.get(dto.getUserId()));
+                return board;
+            })
+            .toList();
+        List<Board> saved = boardRepository.saveAll(boards);
+        saved.forEach(board -> searchIndexService.indexBoard(board.getId(), board.getTitle(), board.getDescription()));
+        return saved.stream().map(boardMapper::toDisplayBoardDto).toList();
+    }
+
+
     public DisplayBoardDto updateBoard(final Long id, final CreateBoardDto taskDto) {
         Board board = boardRepository.findById(id)
             .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
         board.setTitle(taskDto.getTitle());
         board.setDescription(taskDto.getDescription());
         Board saved = boardRepository.save(board);
+        searchIndexService.indexBoard(saved.getId(), saved.getTitle(), saved.getDescription());
         return boardMapper.toDisplayBoardDto(saved);
     }
 
+    /**
+     * Deletes the board with its tasks and their notebooks with set-based
+     * statements in one transaction and evicts their cached views once, after
+     * commit.
+     */
     @Transactional
     public void deleteBoard(final Long id) {
-        Board board = boardRepository.findById(id).orElseThrow(
-            () -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Task board not found")
-        );
-
-        List<Task> tasks = taskRepository.findByBoardId(id);
-
-        tasks.forEach(task -> {
-            taskService.deleteTask(task.getId());
-        });
-        boardRepository.delete(board);
+        if (!boardRepository.existsById(id)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Task board not found");
+        }
+
+        List<Long> taskIds = taskRepository.findIdsByBoardId(id);
+        List<Long> notebookIds = notebookRepository.findIdsByBoardId(id);
+        notebookRepository.bulkDeleteTagLinksByBoardId(id);
+        notebookRepository.bulkDeleteByBoardId(id);
+        taskRepository.bulkDeleteByBoardId(id);
+        boardRepository.bulkDeleteById(id);
+
+        notebookService.evictDeletedTasks(taskIds, notebookIds);
+        searchIndexService.removeBoard(id);
     }
-}
\ No newline at end of file
+}
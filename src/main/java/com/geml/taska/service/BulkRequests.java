@@ -0,0 +1,26 @@
+package com.geml.taska.service;
+
+import java.util.List;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Size limits of the lists accepted by the bulk create endpoints, so one
+ * request cannot hold an unbounded transaction and batch.
+ */
+public final class BulkRequests {
+    public static final int MAX_SIZE = 1000;
+
+    private BulkRequests() {
+    }
+
+    public static void checkSize(final List<?> items, final String name) {
+        if (items == null || items.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, name + " list cannot be empty");
+        }
+        if (items.size() > MAX_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                name + " list cannot contain more than " + MAX_SIZE + " items");
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.geml.taska.service;
+
+import com.geml.taska.config.CacheConfig;
+import com.geml.taska.config.LruCache;
+import com.geml.taska.dto.CacheStatsDto;
+import com.geml.taska.models.Task;
+import com.geml.taska.repository.TaskRepository;
+import java.util.List;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+
+@Service
+@Slf4j
+public class CacheService {
+
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private final CacheConfig cacheConfig;
+    private final NotebookService notebookService;
+    private final TaskRepository taskRepository;
+
+
+    public CacheService(
+        final CacheConfig cacheConfig,
+        final NotebookService notebookService,
+        final TaskRepository taskRepository
+    ) {
+        this.cacheConfig = cacheConfig;
+        this.notebookService = notebookService;
+        this.taskRepository = taskRepository;
+    }
+
+
+    public List<CacheStatsDto> getStats() {
+        return cacheConfig.getCaches().entrySet().stream()
+            .map(entry -> toStatsDto(entry.getKey(), entry.getValue()))
+            .toList();
+    }
+
+    public CacheStatsDto getStats(final String name) {
+        return toStatsDto(name, findCache(name));
+    }
+
+    public CacheStatsDto clear(final String name) {
+        findCache(name);
+        log.info("Clearing cache {}", name);
+        cacheConfig.clearCache(name);
+        return getStats(name);
+    }
+
+    public CacheStatsDto resize(final String name, final long maximumWeightBytes) {
+        LruCache<?, ?> cache = findCache(name);
+        if (maximumWeightBytes <= 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Maximum weight must be positive");
+        }
+        log.info("Resizing cache {} to {} bytes", name, maximumWeightBytes);
+        cache.setMaximumWeight(maximumWeightBytes);
+        return getStats(name);
+    }
+
+    public CacheStatsDto warm(final String name) {
+        findCache(name);
+        log.info("Warming cache {}", name);
+        switch (name) {
+            case CacheConfig.NOTEBOOKS_CACHE -> {
+                String after = null;
+                do {
+                    after = notebookService.getAllNotebooks(null, after, KeysetCursor.MAX_LIMIT).getNextCursor();
+                } while (after != null);
+            }
+            case CacheConfig.NOTEBOOKS_BY_TASK_CACHE -> taskRepository.findAll().stream()
+                .map(Task::getId)
+                .forEach(taskId -> notebookService.getAllNotebooks(taskId, null, 1));
+            case CacheConfig.NOTEBOOKS_FULL_CACHE -> notebookService.getAllNotebooksFull((Long) null);
+            default -> throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Cache not found");
+        }
+        return getStats(name);
+    }
+
+    private LruCache<?, ?> findCache(final String name) {
+        Map<String, LruCache<?, ?>> caches = cacheConfig.getCaches();
+        LruCache<?, ?> cache = caches.get(name);
+        if (cache == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Cache not found");
+        }
+        return cache;
+    }
+
+    private CacheStatsDto toStatsDto(final String name, final LruCache<?, ?> cache) {
+        long hits = cache.getHitCount();
+        long misses = cache.getMissCount();
+        long requests = hits + misses;
+        long loads = cache.getLoadCount();
+        return new CacheStatsDto(
+            name,
+            cache.size(),
+            cache.getWeight(),
+            cache.getMaximumWeight(),
+            hits,
+            misses,
+            requests == 0 ? 0 : (double) hits / requests,
+            cache.getEvictionCount(),
+            loads,
+            loads == 0 ? 0 : cache.getTotalLoadTimeNanos() / NANOS_PER_MILLI / loads
+        );
+    }
+}
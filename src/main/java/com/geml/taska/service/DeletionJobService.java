@@ -0,0 +1,215 @@
+package com.geml.taska.service;
+
+import com.geml.taska.dto.DeletionJobStatusDto;
+import com.geml.taska.models.DeletionJob;
+import com.geml.taska.repository.BoardRepository;
+import com.geml.taska.repository.NotebookRepository;
+import com.geml.taska.repository.TaskRepository;
+import com.geml.taska.repository.UserRepository;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Deletes users and boards in the background. Notebooks, then tasks, are
+ * removed in chunks of {@code deletion.chunk-size} rows, each chunk in its own
+ * short transaction, so row locks are held only briefly. Whatever is left
+ * once the chunks run out, including rows added meanwhile, is removed by the
+ * regular set-based delete of the user or board. Finished jobs are
+ * forgotten once older than {@code deletion.job-ttl}.
+ */
+@Service
+@Slf4j
+public class DeletionJobService {
+
+    private final NotebookRepository notebookRepository;
+    private final TaskRepository taskRepository;
+    private final BoardRepository boardRepository;
+    private final UserRepository userRepository;
+    private final NotebookService notebookService;
+    private final BoardService boardService;
+    private final UserService userService;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor executor;
+    private final int chunkSize;
+    private final Duration jobTtl;
+    private final Map<String, DeletionJob> jobs = new ConcurrentHashMap<>();
+    private final Map<String, DeletionJob> activeJobs = new ConcurrentHashMap<>();
+
+
+    public DeletionJobService(
+        final NotebookRepository notebookRepository,
+        final TaskRepository taskRepository,
+        final BoardRepository boardRepository,
+        final UserRepository userRepository,
+        final NotebookService notebookService,
+        final BoardService boardService,
+        final UserService userService,
+        final PlatformTransactionManager transactionManager,
+        @Qualifier("deletionExecutor") final Executor executor,
+        @Value("${deletion.chunk-size:1000}") final int chunkSize,
+        @Value("${deletion.job-ttl:24h}") final Duration jobTtl
+    ) {
+        this.notebookRepository = notebookRepository;
+        this.taskRepository = taskRepository;
+        this.boardRepository = boardRepository;
+        this.userRepository = userRepository;
+        this.notebookService = notebookService;
+        this.boardService = boardService;
+        this.userService = userService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.executor = executor;
+        this.chunkSize = chunkSize;
+        this.jobTtl = jobTtl;
+    }
+
+    public String startUserDeletion(final Long userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found");
+        }
+        return start(DeletionTarget.USER, userId);
+    }
+
+    public String startBoardDeletion(final Long boardId) {
+        if (!boardRepository.existsById(boardId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Task board not found");
+        }
+        return start(DeletionTarget.BOARD, boardId);
+    }
+
+    public DeletionJobStatusDto getStatus(final UUID jobId) {
+        DeletionJob job = jobs.get(jobId.toString());
+        if (job == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Deletion job not found");
+        }
+        return new DeletionJobStatusDto(job.getId(), job.getTarget(), job.getTargetId(), job.getStatus(),
+            job.getTotalNotebooks(), job.getDeletedNotebooks(), job.getTotalTasks(), job.getDeletedTasks(),
+            job.getErrorMessage());
+    }
+
+    /**
+     * Returns the id of the job already deleting the same target, if any,
+     * instead of starting a second one.
+     */
+    private String start(DeletionTarget target, Long targetId) {
+        String key = target + ":" + targetId;
+        DeletionJob job = new DeletionJob(UUID.randomUUID().toString(), target, targetId);
+        DeletionJob running = activeJobs.putIfAbsent(key, job);
+        if (running != null) {
+            return running.getId();
+        }
+        jobs.put(job.getId(), job);
+        try {
+            executor.execute(() -> run(key, job));
+        } catch (RejectedExecutionException e) {
+            activeJobs.remove(key);
+            jobs.remove(job.getId());
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many deletion jobs", e);
+        }
+        log.info("Started deletion job {} for {} {}", job.getId(), target, targetId);
+        return job.getId();
+    }
+
+    private void run(String key, DeletionJob job) {
+        long start = System.nanoTime();
+        Long id = job.getTargetId();
+        try {
+            job.setStatus(DeletionStatus.IN_PROGRESS);
+            if (job.getTarget() == DeletionTarget.USER) {
+                job.setTotalNotebooks(notebookRepository.countByTaskBoardUserId(id));
+                job.setTotalTasks(taskRepository.countByBoardUserId(id));
+                deleteNotebooks(job, limit -> notebookRepository.findIdsByUserId(id, limit));
+                deleteTasks(job, limit -> taskRepository.findIdsByUserId(id, limit));
+                userService.deleteUser(id);
+            } else {
+                job.setTotalNotebooks(notebookRepository.countByTaskBoardId(id));
+                job.setTotalTasks(taskRepository.countByBoardId(id));
+                deleteNotebooks(job, limit -> notebookRepository.findIdsByBoardId(id, limit));
+                deleteTasks(job, limit -> taskRepository.findIdsByBoardId(id, limit));
+                boardService.deleteBoard(id);
+            }
+            job.setStatus(DeletionStatus.COMPLETED);
+            log.info("Deletion job {} completed in {} ms", job.getId(), (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            job.setStatus(DeletionStatus.FAILED);
+            job.setErrorMessage(e.getMessage());
+            log.error("Deletion job {} failed", job.getId(), e);
+        } finally {
+            job.setFinishedAt(Instant.now());
+            activeJobs.remove(key);
+        }
+    }
+
+    @Scheduled(
+        fixedDelayString = "${deletion.cleanup-interval-ms:600000}",
+        initialDelayString = "${deletion.cleanup-interval-ms:600000}"
+    )
+    public void evictExpired() {
+        Instant expiry = Instant.now().minus(jobTtl);
+        jobs.values().removeIf(job -> job.getFinishedAt() != null && !job.getFinishedAt().isAfter(expiry));
+    }
+
+    private void deleteNotebooks(DeletionJob job, Function<Limit, List<Long>> nextChunk) {
+        List<Long> ids;
+        do {
+            ids = transactionTemplate.execute(status -> {
+                List<Long> chunk = nextChunk.apply(Limit.of(chunkSize));
+                if (!chunk.isEmpty()) {
+                    notebookRepository.bulkDeleteTagLinksByNotebookIds(chunk);
+                    notebookRepository.deleteAllByIdInBatch(chunk);
+                    notebookService.evictDeletedNotebooks(chunk);
+                }
+                return chunk;
+            });
+            job.setDeletedNotebooks(job.getDeletedNotebooks() + ids.size());
+        } while (ids.size() == chunkSize);
+    }
+
+    /**
+     * Deletes tasks chunk by chunk, together with any notebook added to them
+     * after the notebook pass.
+     */
+    private void deleteTasks(DeletionJob job, Function<Limit, List<Long>> nextChunk) {
+        List<Long> ids;
+        do {
+            ids = transactionTemplate.execute(status -> {
+                List<Long> chunk = nextChunk.apply(Limit.of(chunkSize));
+                if (!chunk.isEmpty()) {
+                    List<Long> notebookIds = notebookRepository.findIdsByTaskIds(chunk);
+                    if (!notebookIds.isEmpty()) {
+                        notebookRepository.bulkDeleteTagLinksByNotebookIds(notebookIds);
+                        notebookRepository.deleteAllByIdInBatch(notebookIds);
+                    }
+                    taskRepository.deleteAllByIdInBatch(chunk);
+                    notebookService.evictDeletedTasks(chunk, notebookIds);
+                }
+                return chunk;
+            });
+            job.setDeletedTasks(job.getDeletedTasks() + ids.size());
+        } while (ids.size() == chunkSize);
+    }
+
+    public enum DeletionTarget {
+        USER, BOARD
+    }
+
+    public enum DeletionStatus {
+        QUEUED, IN_PROGRESS, COMPLETED, FAILED
+    }
+}
@@ -0,0 +1,46 @@
+package com.geml.taska.service;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Resolves entities referenced by id in a request with one query per entity
+ * type instead of one per reference.
+ */
+public final class EntityLookup {
+
+    private EntityLookup() {
+    }
+
+    /**
+     * Loads the distinct ids in one query, keyed by id, and reports every id
+     * that does not exist in a single 404.
+     */
+    public static <T> Map<Long, T> findAllById(
+        final JpaRepository<T, Long> repository,
+        final Collection<Long> ids,
+        final Function<T, Long> idOf,
+        final String name
+    ) {
+        Set<Long> distinct = new HashSet<>(ids);
+        Map<Long, T> found = new HashMap<>();
+        if (distinct.isEmpty()) {
+            return found;
+        }
+        repository.findAllById(distinct).forEach(entity -> found.put(idOf.apply(entity), entity));
+        if (found.size() != distinct.size()) {
+            Set<Long> missing = new TreeSet<>(distinct);
+            missing.removeAll(found.keySet());
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, name + " not found: " + missing);
+        }
+        return found;
+    }
+}
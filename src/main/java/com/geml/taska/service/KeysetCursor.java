@@ -0,0 +1,168 @@
+package com.geml.taska.service;
+
+import com.geml.taska.dto.CursorPageDto;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Keyset pagination on {@code id}: a page holds the rows with an id greater
+ * than the one encoded in the {@code after} cursor, in id order. The cursor
+ * is the last id of the previous page, Base64 encoded so clients treat it as
+ * opaque.
+ */
+public final class KeysetCursor {
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 500;
+
+    private static final String PREFIX = "id:";
+    private static final String RANKED_PREFIX = "rank:";
+
+    private KeysetCursor() {
+    }
+
+    public static long decode(final String after) {
+        if (after == null || after.isEmpty()) {
+            return 0L;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(after), StandardCharsets.UTF_8);
+            if (decoded.startsWith(PREFIX)) {
+                return Long.parseLong(decoded.substring(PREFIX.length()));
+            }
+        } catch (IllegalArgumentException e) {
+            // falls through to the bad request below
+        }
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+    }
+
+    /**
+     * Rejects a malformed id cursor with 400, for a listing that cannot
+     * continue from a well-formed one either and must tell the two apart.
+     */
+    public static void validate(final String after) {
+        decode(after);
+    }
+
+    public static String encode(final long id) {
+        return encodeText(PREFIX + id);
+    }
+
+    /**
+     * Decodes a cursor of a ranked listing; the first page starts above any
+     * rank. The rank is encoded bit for bit, so the next query can compare it
+     * for equality.
+     */
+    public static RankedPosition decodeRanked(final String after) {
+        if (after == null || after.isEmpty()) {
+            return new RankedPosition(Float.MAX_VALUE, 0L);
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(after), StandardCharsets.UTF_8);
+            if (decoded.startsWith(RANKED_PREFIX)) {
+                String[] parts = decoded.substring(RANKED_PREFIX.length()).split(":", 2);
+                if (parts.length == 2) {
+                    return new RankedPosition(
+                        Float.intBitsToFloat(Integer.parseInt(parts[0])), Long.parseLong(parts[1]));
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            // falls through to the bad request below
+        }
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+    }
+
+    /**
+     * Tells a cursor of a ranked listing from an id cursor, so a listing that
+     * can page either way continues the way its first page was served.
+     */
+    public static boolean isRanked(final String after) {
+        if (after == null || after.isEmpty()) {
+            return false;
+        }
+        try {
+            return new String(Base64.getUrlDecoder().decode(after), StandardCharsets.UTF_8).startsWith(RANKED_PREFIX);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    public static String encode(final RankedPosition position) {
+        return encodeText(RANKED_PREFIX + Float.floatToIntBits(position.rank()) + ":" + position.id());
+    }
+
+    private static String encodeText(final String cursor) {
+        return Base64.getUrlEncoder().withoutPadding()
+            .encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static int limit(final Integer limit) {
+        if (limit == null) {
+            return DEFAULT_LIMIT;
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "Limit must be between 1 and " + MAX_LIMIT);
+        }
+        return limit;
+    }
+
+    /**
+     * One more row than the page size, so {@link #page} can tell whether
+     * another page follows without a count query.
+     */
+    public static Limit fetchLimit(final int limit) {
+        return Limit.of(limit + 1);
+    }
+
+    /**
+     * Builds a page from rows fetched with {@link #fetchLimit}; the cursor is
+     * only set when the extra row shows that more rows follow.
+     */
+    public static <T> CursorPageDto<T> page(
+        final List<T> fetched, final int limit, final ToLongFunction<? super T> id
+    ) {
+        return pageWithCursor(fetched, limit, last -> encode(id.applyAsLong(last)));
+    }
+
+    public static <T> CursorPageDto<T> pageWithCursor(
+        final List<T> fetched, final int limit, final Function<? super T, String> cursor
+    ) {
+        if (fetched.size() <= limit) {
+            return new CursorPageDto<>(fetched, null);
+        }
+        List<T> items = fetched.subList(0, limit);
+        return new CursorPageDto<>(items, cursor.apply(items.get(limit - 1)));
+    }
+
+    /**
+     * Pages a list that is already sorted by id, such as a cached one.
+     */
+    public static <T> CursorPageDto<T> slice(
+        final List<T> sorted, final long afterId, final int limit, final ToLongFunction<? super T> id
+    ) {
+        int low = 0;
+        int high = sorted.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (id.applyAsLong(sorted.get(middle)) <= afterId) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        if (low >= sorted.size()) {
+            return new CursorPageDto<>(Collections.emptyList(), null);
+        }
+        return page(sorted.subList(low, Math.min(sorted.size(), low + limit + 1)), limit, id);
+    }
+
+    public record RankedPosition(float rank, long id) {
+    }
+}
@@ -0,0 +1,251 @@
+package com.geml.taska.service;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Sparse index of one rolled log file, used to skip the parts of the file a
+ * search cannot match.
+ *
+ * <p>The file is cut into blocks of about {@code BLOCK_SIZE} bytes, always at
+ * the start of an entry, so an entry and its continuation lines (stack
+ * traces) never straddle two blocks. Each block records its byte offset, the
+ * first and last timestamps in it and a bitmap of the levels it contains.
+ * The active file keeps growing, so the index only covers complete lines and
+ * is extended from its last block on the next update.
+ *
+ * <p>Lines are expected in the layout of {@code logback-spring.xml}:
+ * {@code yyyy-MM-dd HH:mm:ss.SSS [thread] LEVEL logger - message}.
+ * Timestamps are kept as local date-time millis, which is all ordering needs.
+ */
+public final class LogFileIndex {
+    static final int BLOCK_SIZE = 256 * 1024;
+    static final long NO_TIME = Long.MIN_VALUE;
+    static final String[] LEVELS = {"TRACE", "DEBUG", "INFO", "WARN", "ERROR"};
+
+    private static final int TIMESTAMP_LENGTH = 23;
+
+    private final Path path;
+    private long[] offsets = new long[8];
+    private long[] firstTimes = new long[8];
+    private long[] lastTimes = new long[8];
+    private byte[] levelMasks = new byte[8];
+    private int blocks;
+    private long indexedLength;
+
+    public LogFileIndex(final Path path) {
+        this.path = path;
+    }
+
+    /**
+     * Indexes whatever complete lines were appended since the last update.
+     * The last block is reopened, as it may have grown. A file shorter than
+     * the indexed length has been replaced and is indexed from scratch.
+     */
+    public synchronized void update() throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < indexedLength) {
+                blocks = 0;
+                indexedLength = 0;
+            }
+            if (size == indexedLength) {
+                return;
+            }
+            long start = blocks > 0 ? offsets[--blocks] : 0;
+            long end = Math.min(size, start + Integer.MAX_VALUE);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+            Header header = new Header();
+            openBlock(start);
+            int position = 0;
+            int limit = buffer.limit();
+            while (position < limit) {
+                int lineEnd = indexOf(buffer, (byte) '\n', position, limit);
+                if (lineEnd < 0) {
+                    break;
+                }
+                boolean isHeader = header.parse(buffer, position, lineEnd);
+                long offset = start + position;
+                if (isHeader && offset - offsets[blocks - 1] >= BLOCK_SIZE) {
+                    openBlock(offset);
+                }
+                if (isHeader) {
+                    int block = blocks - 1;
+                    if (firstTimes[block] == NO_TIME) {
+                        firstTimes[block] = header.time;
+                    }
+                    lastTimes[block] = header.time;
+                    levelMasks[block] |= (byte) header.levelBit;
+                }
+                position = lineEnd + 1;
+            }
+            indexedLength = start + position;
+            if (position == 0) {
+                blocks--;
+            }
+        }
+    }
+
+    private void openBlock(long offset) {
+        if (blocks == offsets.length) {
+            int capacity = blocks * 2;
+            offsets = Arrays.copyOf(offsets, capacity);
+            firstTimes = Arrays.copyOf(firstTimes, capacity);
+            lastTimes = Arrays.copyOf(lastTimes, capacity);
+            levelMasks = Arrays.copyOf(levelMasks, capacity);
+        }
+        offsets[blocks] = offset;
+        firstTimes[blocks] = NO_TIME;
+        lastTimes[blocks] = NO_TIME;
+        levelMasks[blocks] = 0;
+        blocks++;
+    }
+
+    /**
+     * Returns the {@code [start, end)} byte ranges of the blocks that may hold
+     * an entry within the time range with one of the levels, adjacent blocks
+     * merged up to {@code maxRangeBytes}. Blocks without any entry header,
+     * such as the tail of a stack trace at the top of a file, are skipped.
+     */
+    public synchronized List<long[]> candidateRanges(long from, long to, int levelMask, long maxRangeBytes) {
+        List<long[]> ranges = new ArrayList<>();
+        for (int block = 0; block < blocks; block++) {
+            if (firstTimes[block] == NO_TIME || (levelMasks[block] & levelMask) == 0
+                || lastTimes[block] < from || firstTimes[block] > to) {
+                continue;
+            }
+            long start = offsets[block];
+            long end = block + 1 < blocks ? offsets[block + 1] : indexedLength;
+            long[] last = ranges.isEmpty() ? null : ranges.get(ranges.size() - 1);
+            if (last != null && last[1] == start && end - last[0] <= maxRangeBytes) {
+                last[1] = end;
+            } else {
+                ranges.add(new long[] {start, end});
+            }
+        }
+        return ranges;
+    }
+
+    static int indexOf(MappedByteBuffer buffer, byte value, int from, int limit) {
+        for (int i = from; i < limit; i++) {
+            if (buffer.get(i) == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public static int levelBit(String level) {
+        for (int i = 0; i < LEVELS.length; i++) {
+            if (LEVELS[i].equals(level)) {
+                return 1 << i;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * The parsed start of an entry line. Reused from line to line, so a scan
+     * allocates nothing for lines it does not keep.
+     */
+    static final class Header {
+        long time;
+        int levelBit;
+        int loggerStart;
+        int loggerEnd;
+
+        /**
+         * Parses the line {@code [start, end)} and returns whether it starts
+         * an entry; continuation lines return {@code false}.
+         */
+        boolean parse(MappedByteBuffer buffer, int start, int end) {
+            if (end - start < TIMESTAMP_LENGTH + 2
+                || buffer.get(start + 4) != '-' || buffer.get(start + 7) != '-'
+                || buffer.get(start + 10) != ' ' || buffer.get(start + 13) != ':'
+                || buffer.get(start + 16) != ':' || buffer.get(start + 19) != '.'
+                || buffer.get(start + TIMESTAMP_LENGTH) != ' ') {
+                return false;
+            }
+            int year = digits(buffer, start, 4);
+            int month = digits(buffer, start + 5, 2);
+            int day = digits(buffer, start + 8, 2);
+            int hour = digits(buffer, start + 11, 2);
+            int minute = digits(buffer, start + 14, 2);
+            int second = digits(buffer, start + 17, 2);
+            int millis = digits(buffer, start + 20, 3);
+            if (year < 0 || month < 0 || day < 0 || hour < 0 || minute < 0 || second < 0 || millis < 0) {
+                return false;
+            }
+            long epochDay;
+            try {
+                epochDay = LocalDate.of(year, month, day).toEpochDay();
+            } catch (DateTimeException e) {
+                return false;
+            }
+            time = epochDay * 86_400_000L + hour * 3_600_000L + minute * 60_000L + second * 1_000L + millis;
+
+            int position = start + TIMESTAMP_LENGTH + 1;
+            if (buffer.get(position) == '[') {
+                int threadEnd = indexOf(buffer, (byte) ']', position, end);
+                position = threadEnd < 0 ? end : threadEnd + 1;
+            }
+            position = skipSpaces(buffer, position, end);
+            int levelStart = position;
+            while (position < end && buffer.get(position) != ' ') {
+                position++;
+            }
+            levelBit = 0;
+            for (int i = 0; i < LEVELS.length; i++) {
+                if (matches(buffer, levelStart, position, LEVELS[i])) {
+                    levelBit = 1 << i;
+                    break;
+                }
+            }
+            loggerStart = skipSpaces(buffer, position, end);
+            loggerEnd = loggerStart;
+            while (loggerEnd < end && buffer.get(loggerEnd) != ' ') {
+                loggerEnd++;
+            }
+            return true;
+        }
+
+        private static int digits(MappedByteBuffer buffer, int start, int count) {
+            int value = 0;
+            for (int i = start; i < start + count; i++) {
+                int digit = buffer.get(i) - '0';
+                if (digit < 0 || digit > 9) {
+                    return -1;
+                }
+                value = value * 10 + digit;
+            }
+            return value;
+        }
+
+        private static int skipSpaces(MappedByteBuffer buffer, int position, int end) {
+            while (position < end && buffer.get(position) == ' ') {
+                position++;
+            }
+            return position;
+        }
+
+        private static boolean matches(MappedByteBuffer buffer, int start, int end, String value) {
+            if (end - start != value.length()) {
+                return false;
+            }
+            for (int i = 0; i < value.length(); i++) {
+                if (buffer.get(start + i) != value.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
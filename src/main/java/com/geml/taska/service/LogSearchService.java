@@ -0,0 +1,286 @@
+package com.geml.taska.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Searches the rolled log files without reading them whole. Each file has a
+ * {@link LogFileIndex}, built on its first search and extended as the file
+ * grows, which narrows a search down to the blocks whose time range and
+ * levels can match. Index updates and block scans run on the
+ * {@code logSearchExecutor} pool; blocks are read through memory-mapped
+ * buffers, and only entries that pass the time, level and logger checks on
+ * their header are decoded for the text match. Matches are written in file
+ * order as soon as the blocks before them are done, with a bounded number of
+ * blocks in flight.
+ */
+@Service
+@Slf4j
+public class LogSearchService {
+    private static final int DEFAULT_LIMIT = 1000;
+    private static final int MAX_LIMIT = 10_000;
+    private static final int MAX_DAYS = 31;
+    private static final long MAX_RANGE_BYTES = 4L * LogFileIndex.BLOCK_SIZE;
+
+    private final AsyncLogService asyncLogService;
+    private final ThreadPoolTaskExecutor executor;
+    private final int maxRangesInFlight;
+    private final Map<Path, LogFileIndex> indexes = new ConcurrentHashMap<>();
+
+
+    public LogSearchService(
+        final AsyncLogService asyncLogService,
+        @Qualifier("logSearchExecutor") final ThreadPoolTaskExecutor executor
+    ) {
+        this.asyncLogService = asyncLogService;
+        this.executor = executor;
+        this.maxRangesInFlight = 2 * executor.getMaxPoolSize() + 1;
+    }
+
+    public void search(final Query query, final OutputStream out) throws IOException {
+        long start = System.nanoTime();
+        List<Path> files = new ArrayList<>();
+        for (LocalDate date = query.from.toLocalDate(); !date.isAfter(query.to.toLocalDate()); date = date.plusDays(1)) {
+            files.addAll(asyncLogService.findRolledLogFiles(date));
+        }
+        indexes.keySet().removeIf(path -> !Files.exists(path));
+
+        List<List<long[]>> candidates = files.stream()
+            .map(file -> CompletableFuture.supplyAsync(() -> candidateRanges(file, query), executor))
+            .toList().stream()
+            .map(CompletableFuture::join)
+            .toList();
+
+        AtomicBoolean done = new AtomicBoolean();
+        Deque<CompletableFuture<List<byte[]>>> inFlight = new ArrayDeque<>();
+        int written = 0;
+        try {
+            for (int i = 0; i < files.size() && written < query.limit; i++) {
+                Path file = files.get(i);
+                for (long[] range : candidates.get(i)) {
+                    if (inFlight.size() == maxRangesInFlight) {
+                        written = write(inFlight.removeFirst().join(), query.limit, written, out);
+                        if (written >= query.limit) {
+                            break;
+                        }
+                    }
+                    inFlight.addLast(CompletableFuture.supplyAsync(() -> scan(file, range, query, done), executor));
+                }
+            }
+            while (!inFlight.isEmpty() && written < query.limit) {
+                written = write(inFlight.removeFirst().join(), query.limit, written, out);
+            }
+        } finally {
+            done.set(true);
+        }
+        log.info("Log search over {} files matched {} entries in {} ms",
+            files.size(), written, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private List<long[]> candidateRanges(Path file, Query query) {
+        LogFileIndex index = indexes.computeIfAbsent(file, LogFileIndex::new);
+        try {
+            index.update();
+        } catch (NoSuchFileException e) {
+            return List.of();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return index.candidateRanges(query.fromMillis, query.toMillis, query.levelMask, MAX_RANGE_BYTES);
+    }
+
+    private static int write(List<byte[]> entries, int limit, int written, OutputStream out) throws IOException {
+        for (byte[] entry : entries) {
+            if (written == limit) {
+                break;
+            }
+            out.write(entry);
+            written++;
+        }
+        out.flush();
+        return written;
+    }
+
+    /**
+     * Returns, in order, at most {@code limit} entries of the byte range that
+     * match the query. The range always starts at an entry header.
+     */
+    private static List<byte[]> scan(Path file, long[] range, Query query, AtomicBoolean done) {
+        List<byte[]> matches = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, range[0], range[1] - range[0]);
+            LogFileIndex.Header header = new LogFileIndex.Header();
+            int limit = buffer.limit();
+            int entryStart = -1;
+            int position = 0;
+            while (position < limit && matches.size() < query.limit && !done.get()) {
+                int lineEnd = LogFileIndex.indexOf(buffer, (byte) '\n', position, limit);
+                int next = lineEnd < 0 ? limit : lineEnd + 1;
+                if (header.parse(buffer, position, lineEnd < 0 ? limit : lineEnd)) {
+                    addIfMatches(buffer, entryStart, position, query, matches);
+                    entryStart = query.acceptsHeader(buffer, header) ? position : -1;
+                }
+                position = next;
+            }
+            if (matches.size() < query.limit) {
+                addIfMatches(buffer, entryStart, position, query, matches);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return matches;
+    }
+
+    private static void addIfMatches(MappedByteBuffer buffer, int start, int end, Query query, List<byte[]> matches) {
+        if (start < 0) {
+            return;
+        }
+        byte[] entry = new byte[end - start];
+        buffer.get(start, entry);
+        if (query.acceptsText(entry)) {
+            matches.add(entry);
+        }
+    }
+
+    /**
+     * A validated search. Times are local date-times, like the timestamps in
+     * the files; {@code to} defaults to now and {@code from} to the start of
+     * the day of {@code to}. The logger is matched as a prefix of the logger
+     * name as written in the file, and the text, literally or as a regular
+     * expression, against the whole entry including continuation lines.
+     */
+    public static final class Query {
+        private final LocalDateTime from;
+        private final LocalDateTime to;
+        private final long fromMillis;
+        private final long toMillis;
+        private final int levelMask;
+        private final byte[] logger;
+        private final String text;
+        private final Pattern pattern;
+        private final int limit;
+
+        private Query(LocalDateTime from, LocalDateTime to, int levelMask, String logger, String text,
+                      Pattern pattern, int limit) {
+            this.from = from;
+            this.to = to;
+            this.fromMillis = from.toInstant(ZoneOffset.UTC).toEpochMilli();
+            this.toMillis = to.toInstant(ZoneOffset.UTC).toEpochMilli();
+            this.levelMask = levelMask;
+            this.logger = logger == null || logger.isEmpty() ? null : logger.getBytes(StandardCharsets.UTF_8);
+            this.text = text == null || text.isEmpty() ? null : text;
+            this.pattern = pattern;
+            this.limit = limit;
+        }
+
+        public static Query of(
+            final String from,
+            final String to,
+            final List<String> levels,
+            final String logger,
+            final String text,
+            final boolean regex,
+            final Integer limit
+        ) {
+            LocalDateTime toTime = to == null ? LocalDateTime.now() : parseTime(to);
+            LocalDateTime fromTime = from == null ? toTime.toLocalDate().atStartOfDay() : parseTime(from);
+            if (fromTime.isAfter(toTime)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "from must not be after to");
+            }
+            if (ChronoUnit.DAYS.between(fromTime.toLocalDate(), toTime.toLocalDate()) >= MAX_DAYS) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Search range must not exceed " + MAX_DAYS + " days");
+            }
+            int levelMask = 0;
+            if (levels == null || levels.isEmpty()) {
+                levelMask = (1 << LogFileIndex.LEVELS.length) - 1;
+            } else {
+                for (String level : levels) {
+                    int bit = LogFileIndex.levelBit(level.trim().toUpperCase(Locale.ROOT));
+                    if (bit == 0) {
+                        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown log level: " + level);
+                    }
+                    levelMask |= bit;
+                }
+            }
+            Pattern pattern = null;
+            if (regex && text != null && !text.isEmpty()) {
+                try {
+                    pattern = Pattern.compile(text);
+                } catch (PatternSyntaxException e) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid regular expression", e);
+                }
+            }
+            int size = limit == null ? DEFAULT_LIMIT : limit;
+            if (size < 1 || size > MAX_LIMIT) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Limit must be between 1 and " + MAX_LIMIT);
+            }
+            return new Query(fromTime, toTime, levelMask, logger, text, pattern, size);
+        }
+
+        private static LocalDateTime parseTime(String value) {
+            try {
+                return LocalDateTime.parse(value);
+            } catch (DateTimeParseException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid date-time: " + value, e);
+            }
+        }
+
+        private boolean acceptsHeader(MappedByteBuffer buffer, LogFileIndex.Header header) {
+            if (header.time < fromMillis || header.time > toMillis || (header.levelBit & levelMask) == 0) {
+                return false;
+            }
+            if (logger == null) {
+                return true;
+            }
+            if (header.loggerEnd - header.loggerStart < logger.length) {
+                return false;
+            }
+            for (int i = 0; i < logger.length; i++) {
+                if (buffer.get(header.loggerStart + i) != logger[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean acceptsText(byte[] entry) {
+            if (text == null) {
+                return true;
+            }
+            String decoded = new String(entry, StandardCharsets.UTF_8);
+            return pattern != null ? pattern.matcher(decoded).find() : decoded.contains(text);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.geml.taska.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.geml.taska.dto.DisplayNotebookFullDto;
+import com.geml.taska.repository.NotebookRepository;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Locale;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+
+@Service
+@Slf4j
+public class NotebookExportService {
+
+    private final NotebookRepository notebookRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+
+    public NotebookExportService(
+        final NotebookRepository notebookRepository,
+        final ObjectMapper objectMapper,
+        final PlatformTransactionManager transactionManager
+    ) {
+        this.notebookRepository = notebookRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Writes notebooks with their task and tags straight from a database
+     * cursor. Rows arrive ordered by notebook id and the assembler runs in
+     * streaming mode, so only the notebook being assembled and its task and
+     * tags are held in memory, whatever the size of the export.
+     */
+    public void export(final String tagName, final Format format, final OutputStream out) throws IOException {
+        log.info("Exporting notebooks as {} with tag filter {}", format, tagName);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<Object[]> rows = notebookRepository.streamNotebooksFullWithTagFilter(tagName);
+                     JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                    writeRows(rows, format, generator);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void writeRows(Stream<Object[]> rows, Format format, JsonGenerator generator) throws IOException {
+        if (format == Format.JSON) {
+            generator.writeStartArray();
+        } else {
+            generator.setRootValueSeparator(null);
+        }
+        NotebookFullAssembler assembler = NotebookFullAssembler.streaming();
+        for (Object[] row : (Iterable<Object[]>) rows::iterator) {
+            DisplayNotebookFullDto completed = assembler.accept(row);
+            if (completed != null) {
+                writeNotebook(completed, format, generator);
+            }
+        }
+        DisplayNotebookFullDto last = assembler.finish();
+        if (last != null) {
+            writeNotebook(last, format, generator);
+        }
+        if (format == Format.JSON) {
+            generator.writeEndArray();
+        }
+    }
+
+    private void writeNotebook(DisplayNotebookFullDto notebook, Format format, JsonGenerator generator)
+        throws IOException {
+        generator.writeObject(notebook);
+        if (format == Format.NDJSON) {
+            generator.writeRaw('\n');
+        }
+    }
+
+    public enum Format {
+        JSON(MediaType.APPLICATION_JSON),
+        NDJSON(MediaType.APPLICATION_NDJSON);
+
+        private final MediaType mediaType;
+
+        Format(MediaType mediaType) {
+            this.mediaType = mediaType;
+        }
+
+        public MediaType getMediaType() {
+            return mediaType;
+        }
+
+        public static Format parse(final String format) {
+            try {
+                return valueOf(format.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported export format: " + format);
+            }
+        }
+    }
+}
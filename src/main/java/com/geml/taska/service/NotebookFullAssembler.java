@@ -0,0 +1,104 @@
+package com.geml.taska.service;
+
+import com.geml.taska.dto.DisplayNotebookFullDto;
+import com.geml.taska.dto.DisplayTagDto;
+import com.geml.taska.dto.DisplayTaskDto;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Folds the rows of the full-notebook join, one row per notebook and tag,
+ * into {@link DisplayNotebookFullDto}s in a single pass.
+ *
+ * <p>Rows must arrive ordered by notebook id, so the rows of one notebook are
+ * adjacent and a notebook is complete as soon as the next one starts. When
+ * the whole result is kept, as in {@link #assemble(Iterable)}, task and tag
+ * DTOs are interned by id, so a task or tag shared by many notebooks is built
+ * once. A {@link #streaming()} assembler hands each notebook off as soon as it
+ * is complete and forgets its tasks and tags, so its memory stays bounded by
+ * one notebook. Row layout: notebook id, title, content, tag id, tag name,
+ * task id, task title.
+ */
+public final class NotebookFullAssembler {
+
+    private final Map<Long, DisplayTaskDto> tasks = new HashMap<>();
+    private final Map<Long, DisplayTagDto> tags = new HashMap<>();
+    private final boolean streaming;
+    private DisplayNotebookFullDto current;
+    private long currentId;
+
+    private NotebookFullAssembler(final boolean streaming) {
+        this.streaming = streaming;
+    }
+
+    public static NotebookFullAssembler streaming() {
+        return new NotebookFullAssembler(true);
+    }
+
+    public static List<DisplayNotebookFullDto> assemble(final Iterable<Object[]> rows) {
+        NotebookFullAssembler assembler = new NotebookFullAssembler(false);
+        List<DisplayNotebookFullDto> notebooks = new ArrayList<>();
+        for (Object[] row : rows) {
+            DisplayNotebookFullDto completed = assembler.accept(row);
+            if (completed != null) {
+                notebooks.add(completed);
+            }
+        }
+        DisplayNotebookFullDto last = assembler.finish();
+        if (last != null) {
+            notebooks.add(last);
+        }
+        return notebooks;
+    }
+
+    /**
+     * Adds one row and returns the previous notebook if this row starts a new
+     * one, otherwise {@code null}.
+     */
+    public DisplayNotebookFullDto accept(final Object[] row) {
+        long notebookId = ((Number) row[0]).longValue();
+        DisplayNotebookFullDto completed = null;
+        if (current == null || currentId != notebookId) {
+            completed = current;
+            if (streaming) {
+                tasks.clear();
+                tags.clear();
+            }
+            current = new DisplayNotebookFullDto(
+                notebookId, (String) row[1], (String) row[2], internTask(row[5], row[6]), new ArrayList<>(1));
+            currentId = notebookId;
+        }
+        if (row[3] != null) {
+            current.getTags().add(internTag(row[3], row[4]));
+        }
+        return completed;
+    }
+
+    /**
+     * Returns the notebook still being assembled, if any.
+     */
+    public DisplayNotebookFullDto finish() {
+        DisplayNotebookFullDto last = current;
+        current = null;
+        return last;
+    }
+
+    int internedCount() {
+        return tasks.size() + tags.size();
+    }
+
+    private DisplayTaskDto internTask(Object id, Object title) {
+        if (id == null) {
+            return null;
+        }
+        return tasks.computeIfAbsent(((Number) id).longValue(),
+            taskId -> new DisplayTaskDto(taskId, (String) title, null, null));
+    }
+
+    private DisplayTagDto internTag(Object id, Object name) {
+        return tags.computeIfAbsent(((Number) id).longValue(),
+            tagId -> new DisplayTagDto(tagId, null, (String) name));
+    }
+}
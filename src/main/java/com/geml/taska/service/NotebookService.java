@@ -2,29 +2,34 @@ package com.geml.taska.service;
 
 import com.geml.taska.config.CacheConfig;
 import com.geml.taska.dto.CreateNotebookDto;
+import com.geml.taska.dto.CursorPageDto;
 import com.geml.taska.dto.DisplayNotebookDto;
 import com.geml.taska.dto.DisplayNotebookFullDto;
-import com.geml.taska.dto.DisplayTagDto;
-import com.geml.taska.dto.DisplayTaskDto;
 import com.geml.taska.exception.ValidationException;
 import com.geml.taska.mapper.NotebookMapper;
 import com.geml.taska.models.Notebook;
 import com.geml.taska.models.Tag;
 import com.geml.taska.models.Task;
 import com.geml.taska.repository.NotebookRepository;
+import com.geml.taska.repository.NotebookSearchHit;
 import com.geml.taska.repository.TagRepository;
 import com.geml.taska.repository.TaskRepository;
 import jakarta.transaction.Transactional;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.function.Supplier;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.server.ResponseStatusException;
 
 
@@ -37,6 +42,7 @@ public class NotebookService {
     private final TaskRepository taskRepository;
     private final TagRepository tagRepository;
     private final CacheConfig cacheConfig;
+    private final SearchIndexService searchIndexService;
 
 
     public NotebookService(
@@ -44,117 +50,162 @@ public class NotebookService {
         final NotebookMapper notebookMapper,
         final TaskRepository taskRepository,
         final TagRepository tagRepository,
-        final CacheConfig cacheConfig
+        final CacheConfig cacheConfig,
+        final SearchIndexService searchIndexService
     ) {
         this.notebookRepository = notebookRepository;
         this.notebookMapper = notebookMapper;
         this.taskRepository = taskRepository;
         this.tagRepository = tagRepository;
         this.cacheConfig = cacheConfig;
+        this.searchIndexService = searchIndexService;
     }
 
 
-    public List<DisplayNotebookDto> getAllNotebooks(Long taskId) {
-        List<DisplayNotebookDto> cachedNotebooks = cacheConfig.getAllNotebooks();
-        if (cachedNotebooks != null && taskId == null) {
-            log.debug("Getting all notebooks from cache");
-            return cachedNotebooks;
-        }
-
-        log.debug("Getting all notebooks from database");
-        List<Notebook> notebooks;
+    /**
+     * Pages notebooks by id with a keyset query, so deep pages cost no more
+     * than the first one. The notebooks of one task are cut from a cached,
+     * id-sorted list instead. Loaded notebooks are added to the notebook cache.
+     */
+    public CursorPageDto<DisplayNotebookDto> getAllNotebooks(Long taskId, String after, Integer limit) {
+        int pageSize = KeysetCursor.limit(limit);
+        long afterId = KeysetCursor.decode(after);
         if (taskId != null) {
-            notebooks = notebookRepository.findByTaskIdFilter(taskId);
-        } else {
-            notebooks = notebookRepository.findAll();
+            return KeysetCursor.slice(getNotebooksByTask(taskId), afterId, pageSize, DisplayNotebookDto::getId);
         }
-        List<DisplayNotebookDto> displayNotebooks = notebooks.stream()
+
+        long version = cacheConfig.getNotebookVersion();
+        List<DisplayNotebookDto> notebooks = notebookRepository.findByIdGreaterThanOrderByIdAsc(
+                afterId, KeysetCursor.fetchLimit(pageSize)).stream()
                 .map(notebookMapper::toDisplayNotebookDto).toList();
-        if (taskId == null) {
-            cacheConfig.putAllNotebooks(displayNotebooks);
+        cacheConfig.putNotebooks(notebooks, version);
+        return KeysetCursor.page(notebooks, pageSize, DisplayNotebookDto::getId);
+    }
+
+    private List<DisplayNotebookDto> getNotebooksByTask(Long taskId) {
+        return cacheConfig.getNotebooksByTask(taskId, id -> {
+            log.debug("Getting notebooks of task {} from database", id);
+            return notebookRepository.findByTaskIdFilter(id).stream()
+                    .map(notebookMapper::toDisplayNotebookDto).toList();
+        }, notebooks -> {
+            Set<String> dependencies = new HashSet<>();
+            dependencies.add(CacheConfig.taskDependency(taskId));
+            notebooks.forEach(notebook -> dependencies.add(CacheConfig.notebookDependency(notebook.getId())));
+            return dependencies;
+        });
+    }
+
+    private List<DisplayNotebookDto> assembleNotebooks(List<Long> ids) {
+        long version = cacheConfig.getNotebookVersion();
+        Map<Long, DisplayNotebookDto> found = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long id : ids) {
+            DisplayNotebookDto cached = cacheConfig.getNotebook(id);
+            if (cached != null) {
+                found.put(id, cached);
+            } else {
+                missing.add(id);
+            }
         }
-        return displayNotebooks;
+        if (!missing.isEmpty()) {
+            log.debug("Loading {} notebooks missing from cache", missing.size());
+            List<DisplayNotebookDto> loaded = notebookRepository.findAllById(missing).stream()
+                    .map(notebookMapper::toDisplayNotebookDto).toList();
+            cacheConfig.putNotebooks(loaded, version);
+            loaded.forEach(notebook -> found.put(notebook.getId(), notebook));
+        }
+        return ids.stream().map(found::get).filter(Objects::nonNull).toList();
     }
 
     public List<DisplayNotebookFullDto> getAllNotebooksFull(Long taskId) {
-        List<Object[]> results;
-        results = notebookRepository.findAllNotebooksFullWithTagAndTaskFilter(taskId);
-        return processResults(results);
+        if (taskId == null) {
+            return getNotebooksFull("all", CacheConfig.ALL_NOTEBOOKS_DEPENDENCY,
+                () -> notebookRepository.findAllNotebooksFullWithTagAndTaskFilter(null));
+        }
+        return getNotebooksFull("task:" + taskId, CacheConfig.taskDependency(taskId),
+            () -> notebookRepository.findAllNotebooksFullWithTagAndTaskFilter(taskId));
     }
-    
-    
 
     public List<DisplayNotebookFullDto> getAllNotebooksFull(String tagName) {
-        List<Object[]> results = notebookRepository.findAllNotebooksFullWithTagFilter(tagName);
-        return processResults(results);
-    }
-
-    @SuppressWarnings("unused")
-    private List<DisplayNotebookFullDto> processResults(List<Object[]> results) {
-        Map<Long, DisplayNotebookFullDto> notebookMap = new HashMap<>();
-
-        for (Object[] row : results) {
-            Long notebookId = ((Number) row[0]).longValue();
-            String notebookTitle = (String) row[1];
-            String notebookContent = (String) row[2];
-            Long tagId = row[3] != null ? ((Number) row[3]).longValue() : null;
-            String tagName = (String) row[4];
-            Long taskId = row[5] != null ? ((Number) row[5]).longValue() : null;
-            String taskTitle = (String) row[6];
-
-            notebookMap.computeIfAbsent(notebookId, id -> {
-                DisplayNotebookFullDto dto = new DisplayNotebookFullDto();
-                dto.setId(notebookId);
-                dto.setTitle(notebookTitle);
-                dto.setContent(notebookContent);
-                dto.setTags(new HashSet<>());
-                dto.setTask(null);
-                return dto;
-            });
-
-            DisplayNotebookFullDto notebookDto = notebookMap.get(notebookId);
-            if (tagId != null) {
-                DisplayTagDto tagDto = new DisplayTagDto();
-                tagDto.setId(tagId);
-                tagDto.setName(tagName);
-                notebookDto.getTags().add(tagDto);
-            }
-            if (taskId != null) {
-                DisplayTaskDto taskDto = new DisplayTaskDto();
-                taskDto.setId(taskId);
-                taskDto.setTitle(taskTitle);
-                notebookDto.setTask(taskDto);
-            }
+        if (tagName == null) {
+            return getAllNotebooksFull((Long) null);
         }
+        String key = "tag:" + tagName.toLowerCase(Locale.ROOT);
+        return getNotebooksFull(key, CacheConfig.tagFilterDependency(tagName),
+            () -> notebookRepository.findAllNotebooksFullWithTagFilter(tagName));
+    }
 
-        return new ArrayList<>(notebookMap.values());
+    private List<DisplayNotebookFullDto> getNotebooksFull(
+        String key, String filterDependency, Supplier<List<Object[]>> query
+    ) {
+        return cacheConfig.getNotebooksFull(key, k -> NotebookFullAssembler.assemble(query.get()), notebooks -> {
+            Set<String> dependencies = new HashSet<>();
+            dependencies.add(filterDependency);
+            for (DisplayNotebookFullDto notebook : notebooks) {
+                dependencies.add(CacheConfig.notebookDependency(notebook.getId()));
+                if (notebook.getTask() != null) {
+                    dependencies.add(CacheConfig.taskDependency(notebook.getTask().getId()));
+                }
+                notebook.getTags().forEach(tag -> dependencies.add(CacheConfig.tagDependency(tag.getId())));
+            }
+            return dependencies;
+        });
     }
 
-    public List<DisplayNotebookDto> getAllNotebooksSearch(final String title) {
-        List<Notebook> notebooks = (title != null && !title.isEmpty())
-                ? notebookRepository.searchByTitle(title)
-                : notebookRepository.findAll();
-        return notebooks.stream()
-                .map(notebookMapper::toDisplayNotebookDto).toList();
+
+    /**
+     * Full-text search over notebook title and content, best matches first.
+     * When the in-process search index is enabled and built, matches come
+     * from it in id order instead. A cursor is only valid on the path that
+     * issued it: a ranked cursor always continues in the database, and an id
+     * cursor of the index is rejected once the index is unavailable. Without
+     * a query, pages through all notebooks in id order.
+     */
+    public CursorPageDto<DisplayNotebookDto> getAllNotebooksSearch(
+        final String query, final String after, final Integer limit
+    ) {
+        int pageSize = KeysetCursor.limit(limit);
+        if (query == null || query.isBlank()) {
+            List<Notebook> notebooks = notebookRepository.findByIdGreaterThanOrderByIdAsc(
+                    KeysetCursor.decode(after), KeysetCursor.fetchLimit(pageSize));
+            return KeysetCursor.page(notebooks.stream()
+                    .map(notebookMapper::toDisplayNotebookDto).toList(), pageSize, DisplayNotebookDto::getId);
+        }
+
+        boolean ranked = KeysetCursor.isRanked(after);
+        if (searchIndexService.isNotebookIndexReady() && !ranked) {
+            List<Long> matches = searchIndexService.searchNotebooks(query, KeysetCursor.decode(after), pageSize + 1);
+            CursorPageDto<Long> page = KeysetCursor.page(matches, pageSize, Long::longValue);
+            return new CursorPageDto<>(assembleNotebooks(page.getItems()), page.getNextCursor());
+        }
+
+        if (after != null && !after.isEmpty() && !ranked) {
+            KeysetCursor.validate(after);
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Cursor was issued by the search index, which is unavailable; restart the search without it");
+        }
+        KeysetCursor.RankedPosition position = KeysetCursor.decodeRanked(after);
+        List<NotebookSearchHit> hits = notebookRepository.searchByText(
+                query, position.rank(), position.id(), pageSize + 1);
+        CursorPageDto<NotebookSearchHit> page = KeysetCursor.pageWithCursor(hits, pageSize,
+                hit -> KeysetCursor.encode(new KeysetCursor.RankedPosition(hit.getRank(), hit.getId())));
+        List<Long> ids = page.getItems().stream().map(NotebookSearchHit::getId).toList();
+        return new CursorPageDto<>(assembleNotebooks(ids), page.getNextCursor());
     }
 
 
     public DisplayNotebookDto getNotebookById(final Long id) {
-        Notebook nb = notebookRepository.findById(id).orElseThrow(
-            () -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Notebook not found")
-        );
-        return notebookMapper.toDisplayNotebookDto(nb);
+        return cacheConfig.getNotebook(id, key -> {
+            Notebook nb = notebookRepository.findById(key).orElseThrow(
+                () -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Notebook not found")
+            );
+            return notebookMapper.toDisplayNotebookDto(nb);
+        });
     }
 
 
     public DisplayNotebookDto createNotebook(final CreateNotebookDto dto) {
-        List<String> errors = new ArrayList<>();
-        if (dto.getTitle() == null || dto.getTitle().trim().isEmpty()) {
-            errors.add("Title cannot be empty");
-        }
-        if (dto.getContent() == null || dto.getContent().trim().isEmpty()) {
-            errors.add("Content cannot be empty");
-        }
+        List<String> errors = validationErrors(dto);
         if (!errors.isEmpty()) {
             throw new ValidationException(errors);
         }
@@ -167,27 +218,84 @@ public class NotebookService {
             nb.setTask(taskItem);
         }
         if (dto.getTagIds() != null && !dto.getTagIds().isEmpty()) {
-            Set<Tag> tags = dto.getTagIds().stream()
-                    .map(tagId -> tagRepository.findById(tagId)
-                    .orElseThrow(
-                        () -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Tag not found"))
-                    ).collect(Collectors.toSet());
-            nb.setTags(tags);
+            nb.setTags(new HashSet<>(findTags(dto.getTagIds())));
         }
         Notebook saved = notebookRepository.save(nb);
-        invalidateNotebookCache();
-        return notebookMapper.toDisplayNotebookDto(saved);
+        DisplayNotebookDto created = notebookMapper.toDisplayNotebookDto(saved);
+        List<String> dependencies = new ArrayList<>();
+        dependencies.add(CacheConfig.ALL_NOTEBOOKS_DEPENDENCY);
+        if (created.getTaskId() != null) {
+            dependencies.add(CacheConfig.taskDependency(created.getTaskId()));
+        }
+        Set<String> tagNames = tagNames(saved.getTags());
+        searchIndexService.indexNotebook(created.getId(), created.getTitle(), created.getContent());
+        afterCommit(() -> {
+            cacheConfig.putNotebook(created);
+            cacheConfig.removeNotebookDependents(dependencies);
+            tagNames.forEach(cacheConfig::removeTagFilterDependents);
+        });
+        return created;
     }
 
 
-    public DisplayNotebookDto updateNotebook(final Long id, final CreateNotebookDto dto) {
+    /**
+     * Creates all notebooks in one transaction. Tasks and tags are resolved
+     * with one query each and the rows are written in JDBC batches; caches are
+     * updated once, after commit.
+     */
+    @Transactional
+    public List<DisplayNotebookDto> createNotebooks(final List<CreateNotebookDto> dtos) {
+        BulkRequests.checkSize(dtos, "Notebook");
         List<String> errors = new ArrayList<>();
-        if (dto.getTitle() == null || dto.getTitle().trim().isEmpty()) {
-            errors.add("Title cannot be empty");
+        for (int i = 0; i < dtos.size(); i++) {
+            int index = i;
+            validationErrors(dtos.get(i)).forEach(error -> errors.add("Notebook " + index + ": " + error));
         }
-        if (dto.getContent() == null || dto.getContent().trim().isEmpty()) {
-            errors.add("Content cannot be empty");
+        if (!errors.isEmpty()) {
+            throw new ValidationException(errors);
         }
+
+        Map<Long, Task> tasks = EntityLookup.findAllById(taskRepository,
+            dtos.stream().map(CreateNotebookDto::getTaskId).filter(Objects::nonNull).toList(),
+            Task::getId, "Tasks");
+        Map<Long, Tag> tags = EntityLookup.findAllById(tagRepository,
+            dtos.stream().filter(dto -> dto.getTagIds() != null).flatMap(dto -> dto.getTagIds().stream()).toList(),
+            Tag::getId, "Tags");
+        List<Notebook> notebooks = new ArrayList<>(dtos.size());
+        for (CreateNotebookDto dto : dtos) {
+            Notebook nb = notebookMapper.fromCreateNotebookDto(dto);
+            if (dto.getTaskId() != null) {
+                nb.setTask(tasks.get(dto.getTaskId()));
+            }
+            if (dto.getTagIds() != null && !dto.getTagIds().isEmpty()) {
+                Set<Tag> notebookTags = new HashSet<>();
+                dto.getTagIds().forEach(tagId -> notebookTags.add(tags.get(tagId)));
+                nb.setTags(notebookTags);
+            }
+            notebooks.add(nb);
+        }
+
+        List<DisplayNotebookDto> created = notebookRepository.saveAll(notebooks).stream()
+            .map(notebookMapper::toDisplayNotebookDto)
+            .toList();
+        List<Long> ids = created.stream().map(DisplayNotebookDto::getId).toList();
+        List<String> dependencies = new ArrayList<>();
+        dependencies.add(CacheConfig.ALL_NOTEBOOKS_DEPENDENCY);
+        tasks.keySet().forEach(taskId -> dependencies.add(CacheConfig.taskDependency(taskId)));
+        Set<String> tagNames = tagNames(new HashSet<>(tags.values()));
+        created.forEach(notebook ->
+            searchIndexService.indexNotebook(notebook.getId(), notebook.getTitle(), notebook.getContent()));
+        afterCommit(() -> {
+            cacheConfig.removeNotebookDependents(dependencies);
+            tagNames.forEach(cacheConfig::removeTagFilterDependents);
+        });
+        log.info("Created {} notebooks in bulk", created.size());
+        return created;
+    }
+
+
+    public DisplayNotebookDto updateNotebook(final Long id, final CreateNotebookDto dto) {
+        List<String> errors = validationErrors(dto);
         if (!errors.isEmpty()) {
             throw new ValidationException(errors);
         }
@@ -196,17 +304,20 @@ public class NotebookService {
             .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
         nb.setTitle(dto.getTitle());
         nb.setContent(dto.getContent());
+        Set<String> tagNames = tagNames(nb.getTags());
         if (dto.getTagIds() != null && !dto.getTagIds().isEmpty()) {
-            Set<Tag> tags = dto.getTagIds().stream()
-                    .map(tagId -> tagRepository.findById(tagId)
-                            .orElseThrow(
-                                    () -> new ResponseStatusException(HttpStatus.NOT_FOUND)))
-                    .collect(Collectors.toSet());
-            nb.setTags(tags);
+            replaceTags(nb, dto.getTagIds());
         }
         Notebook saved = notebookRepository.save(nb);
-        invalidateNotebookCache();
-        return notebookMapper.toDisplayNotebookDto(saved);
+        DisplayNotebookDto updated = notebookMapper.toDisplayNotebookDto(saved);
+        tagNames.addAll(tagNames(saved.getTags()));
+        searchIndexService.indexNotebook(updated.getId(), updated.getTitle(), updated.getContent());
+        afterCommit(() -> {
+            cacheConfig.putNotebook(updated);
+            cacheConfig.removeNotebookDependents(List.of(CacheConfig.notebookDependency(id)));
+            tagNames.forEach(cacheConfig::removeTagFilterDependents);
+        });
+        return updated;
     }
 
     @Transactional
@@ -215,12 +326,120 @@ public class NotebookService {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Notebook not found");
         }
         notebookRepository.deleteById(id);
-        invalidateNotebookCache();
+        evictDeletedNotebooks(List.of(id));
+    }
+
+    /**
+     * Drops cached copies of notebooks whose contents changed without going
+     * through this service, e.g. when a tag is detached from them.
+     */
+    public void evictNotebooks(Collection<Long> ids) {
+        List<String> dependencies = notebookDependencies(ids);
+        afterCommit(() -> {
+            cacheConfig.removeNotebooks(ids);
+            cacheConfig.removeNotebookDependents(dependencies);
+        });
     }
-    
+
+    public void evictDeletedNotebooks(Collection<Long> ids) {
+        List<String> dependencies = notebookDependencies(ids);
+        searchIndexService.removeNotebooks(ids);
+        afterCommit(() -> {
+            cacheConfig.removeNotebooks(ids);
+            cacheConfig.removeNotebookDependents(dependencies);
+        });
+    }
+
+    /**
+     * Evicts, in one after-commit step, everything a set-based delete of whole
+     * tasks removed: their notebooks and every view built from either.
+     */
+    public void evictDeletedTasks(Collection<Long> taskIds, Collection<Long> notebookIds) {
+        List<String> dependencies = new ArrayList<>(notebookDependencies(notebookIds));
+        taskIds.forEach(taskId -> dependencies.add(CacheConfig.taskDependency(taskId)));
+        searchIndexService.removeNotebooks(notebookIds);
+        afterCommit(() -> {
+            cacheConfig.removeNotebooks(notebookIds);
+            cacheConfig.removeNotebookDependents(dependencies);
+        });
+    }
+
+    public void evictTaskDependents(Long taskId) {
+        afterCommit(() -> cacheConfig.removeNotebookDependents(
+            List.of(CacheConfig.taskDependency(taskId))));
+    }
+
+    /**
+     * Evicts views that contain the tag or whose tag-name filter matches any of
+     * the given names, e.g. both the old and the new name after a rename.
+     */
+    public void evictTagDependents(Long tagId, Collection<String> tagNames) {
+        afterCommit(() -> {
+            cacheConfig.removeNotebookDependents(List.of(CacheConfig.tagDependency(tagId)));
+            tagNames.forEach(cacheConfig::removeTagFilterDependents);
+        });
+    }
+
     public void invalidateNotebookCache() {
         log.debug("Invalidating notebook cache");
-        cacheConfig.removeAllNotebooks();
-        cacheConfig.removeAllNotebooksFull();
+        afterCommit(() -> {
+            cacheConfig.removeAllNotebooks();
+            cacheConfig.removeAllNotebookViews();
+        });
+    }
+
+    private static List<String> validationErrors(final CreateNotebookDto dto) {
+        List<String> errors = new ArrayList<>();
+        if (dto.getTitle() == null || dto.getTitle().trim().isEmpty()) {
+            errors.add("Title cannot be empty");
+        }
+        if (dto.getContent() == null || dto.getContent().trim().isEmpty()) {
+            errors.add("Content cannot be empty");
+        }
+        return errors;
+    }
+
+    private List<Tag> findTags(final Collection<Long> tagIds) {
+        return new ArrayList<>(EntityLookup.findAllById(tagRepository, tagIds, Tag::getId, "Tags").values());
+    }
+
+    /**
+     * Changes the notebook's tags in place, so that only the links that were
+     * added or removed are written, and loads only the tags it did not have.
+     */
+    private void replaceTags(final Notebook nb, final Collection<Long> tagIds) {
+        Set<Long> wanted = new HashSet<>(tagIds);
+        Set<Tag> tags = nb.getTags() != null ? nb.getTags() : new HashSet<>();
+        Set<Long> added = new HashSet<>(wanted);
+        tags.forEach(tag -> added.remove(tag.getId()));
+        List<Tag> addedTags = added.isEmpty() ? List.of() : findTags(added);
+        tags.removeIf(tag -> !wanted.contains(tag.getId()));
+        tags.addAll(addedTags);
+        nb.setTags(tags);
+    }
+
+    private static List<String> notebookDependencies(Collection<Long> ids) {
+        return ids.stream().map(CacheConfig::notebookDependency).toList();
+    }
+
+    private static Set<String> tagNames(Set<Tag> tags) {
+        Set<String> names = new HashSet<>();
+        if (tags != null) {
+            tags.forEach(tag -> names.add(tag.getName()));
+        }
+        return names;
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
     }
 }
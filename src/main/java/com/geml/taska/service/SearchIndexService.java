@@ -0,0 +1,230 @@
+package com.geml.taska.service;
+
+import com.geml.taska.config.InvertedIndex;
+import com.geml.taska.repository.BoardRepository;
+import com.geml.taska.repository.NotebookRepository;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+import java.util.function.BiFunction;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Optional in-process search over notebooks (title, content) and boards
+ * (title, description), enabled with {@code search.index.enabled}. The
+ * indexes are built from the database once the application has started and
+ * kept current by the services that write notebooks and boards. Until the
+ * first build completes, searches fall back to the database.
+ */
+@Service
+@Slf4j
+public class SearchIndexService {
+    private static final int REBUILD_PAGE_SIZE = 1000;
+
+    private final NotebookRepository notebookRepository;
+    private final BoardRepository boardRepository;
+    private final boolean enabled;
+    private final IndexHolder notebookIndex = new IndexHolder("notebooks");
+    private final IndexHolder boardIndex = new IndexHolder("boards");
+
+
+    public SearchIndexService(
+        final NotebookRepository notebookRepository,
+        final BoardRepository boardRepository,
+        @Value("${search.index.enabled:false}") final boolean enabled
+    ) {
+        this.notebookRepository = notebookRepository;
+        this.boardRepository = boardRepository;
+        this.enabled = enabled;
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    public void rebuild() {
+        notebookIndex.rebuild(notebookRepository::findSearchDocuments);
+        boardIndex.rebuild(boardRepository::findSearchDocuments);
+    }
+
+    public boolean isNotebookIndexReady() {
+        return enabled && notebookIndex.isReady();
+    }
+
+    public boolean isBoardIndexReady() {
+        return enabled && boardIndex.isReady();
+    }
+
+    public List<Long> searchNotebooks(final String query, final long afterId, final int limit) {
+        return notebookIndex.search(query, afterId, limit);
+    }
+
+    public List<Long> searchBoards(final String query, final long afterId, final int limit) {
+        return boardIndex.search(query, afterId, limit);
+    }
+
+    public void indexNotebook(final Long id, final String title, final String content) {
+        if (enabled) {
+            afterCommit(() -> notebookIndex.put(id, title, content));
+        }
+    }
+
+    public void removeNotebooks(final Collection<Long> ids) {
+        if (enabled) {
+            afterCommit(() -> ids.forEach(notebookIndex::remove));
+        }
+    }
+
+    public void indexBoard(final Long id, final String title, final String description) {
+        if (enabled) {
+            afterCommit(() -> boardIndex.put(id, title, description));
+        }
+    }
+
+    public void removeBoard(final Long id) {
+        if (enabled) {
+            afterCommit(() -> boardIndex.remove(id));
+        }
+    }
+
+    public void removeBoards(final Collection<Long> ids) {
+        if (enabled) {
+            afterCommit(() -> ids.forEach(boardIndex::remove));
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * The live index of one kind of document. While a rebuild runs, writes go
+     * to the live index and are also recorded, then replayed onto the rebuilt
+     * index before it replaces the live one, so no write is lost to a page
+     * that was read before it.
+     */
+    private static final class IndexHolder {
+        private static final int MAX_PAGES_IN_FLIGHT = 2 * ForkJoinPool.getCommonPoolParallelism() + 1;
+
+        private final String name;
+        private volatile InvertedIndex index;
+        private Map<Long, String[]> pending;
+
+        private IndexHolder(String name) {
+            this.name = name;
+        }
+
+        private boolean isReady() {
+            return index != null;
+        }
+
+        private synchronized void put(Long id, String... fields) {
+            if (index != null) {
+                index.put(id, fields);
+            }
+            if (pending != null) {
+                pending.put(id, fields);
+            }
+        }
+
+        private synchronized void remove(Long id) {
+            if (index != null) {
+                index.remove(id);
+            }
+            if (pending != null) {
+                pending.put(id, null);
+            }
+        }
+
+        private List<Long> search(String query, long afterId, int limit) {
+            InvertedIndex current = index;
+            if (current == null) {
+                return List.of();
+            }
+            return Arrays.stream(current.search(query, afterId, limit)).boxed().toList();
+        }
+
+        /**
+         * Reads documents page by page in id order and tokenizes the pages in
+         * parallel, with a bounded number of pages held in memory at once.
+         */
+        private void rebuild(BiFunction<Long, Limit, List<Object[]>> pages) {
+            synchronized (this) {
+                if (pending != null) {
+                    log.info("Search index {} is already being rebuilt", name);
+                    return;
+                }
+                pending = new HashMap<>();
+            }
+            long start = System.nanoTime();
+            InvertedIndex rebuilt = new InvertedIndex();
+            try {
+                Semaphore inFlight = new Semaphore(MAX_PAGES_IN_FLIGHT);
+                List<CompletableFuture<Void>> tasks = new ArrayList<>();
+                long afterId = 0;
+                List<Object[]> page;
+                do {
+                    page = pages.apply(afterId, Limit.of(REBUILD_PAGE_SIZE));
+                    if (page.isEmpty()) {
+                        break;
+                    }
+                    afterId = ((Number) page.get(page.size() - 1)[0]).longValue();
+                    inFlight.acquireUninterruptibly();
+                    List<Object[]> documents = page;
+                    tasks.add(CompletableFuture.runAsync(() -> {
+                        try {
+                            documents.forEach(row -> rebuilt.put(
+                                ((Number) row[0]).longValue(), (String) row[1], (String) row[2]));
+                        } finally {
+                            inFlight.release();
+                        }
+                    }));
+                } while (page.size() == REBUILD_PAGE_SIZE);
+                CompletableFuture.allOf(tasks.toArray(new CompletableFuture[0])).join();
+                synchronized (this) {
+                    pending.forEach((id, fields) -> {
+                        if (fields == null) {
+                            rebuilt.remove(id);
+                        } else {
+                            rebuilt.put(id, fields);
+                        }
+                    });
+                    index = rebuilt;
+                }
+                log.info("Search index {} rebuilt with {} documents in {} ms",
+                    name, rebuilt.size(), (System.nanoTime() - start) / 1_000_000);
+            } finally {
+                synchronized (this) {
+                    pending = null;
+                }
+            }
+        }
+    }
+}
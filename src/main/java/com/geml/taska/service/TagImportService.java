@@ -0,0 +1,144 @@
+package com.geml.taska.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.geml.taska.dto.CreateTagDto;
+import com.geml.taska.exception.ValidationException;
+import com.geml.taska.mapper.TagMapper;
+import com.geml.taska.models.Tag;
+import com.geml.taska.models.User;
+import com.geml.taska.repository.TagRepository;
+import com.geml.taska.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+
+@Service
+@Slf4j
+public class TagImportService {
+    private static final int CHUNK_SIZE = 500;
+
+    private final TagRepository tagRepository;
+    private final UserRepository userRepository;
+    private final TagMapper tagMapper;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+
+
+    public TagImportService(
+        final TagRepository tagRepository,
+        final UserRepository userRepository,
+        final TagMapper tagMapper,
+        final ObjectMapper objectMapper,
+        final Validator validator,
+        final EntityManager entityManager,
+        final PlatformTransactionManager transactionManager
+    ) {
+        this.tagRepository = tagRepository;
+        this.userRepository = userRepository;
+        this.tagMapper = tagMapper;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Reads tags from a JSON array or newline-delimited JSON and inserts them
+     * in one transaction. Tags are written {@value #CHUNK_SIZE} at a time as a
+     * JDBC batch and then detached, so neither the request body nor the saved
+     * tags are ever held in memory as a whole. Each user is looked up once.
+     */
+    public long importTags(final InputStream body) throws IOException {
+        try {
+            long created = transactionTemplate.execute(status -> {
+                try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+                    return readAndSave(parser);
+                } catch (JsonProcessingException e) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Malformed tag import: " + e.getOriginalMessage(), e);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            log.info("Imported {} tags", created);
+            return created;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private long readAndSave(JsonParser parser) throws IOException {
+        JsonToken token = parser.nextToken();
+        boolean array = token == JsonToken.START_ARRAY;
+        if (array) {
+            token = parser.nextToken();
+        }
+        Set<Long> knownUsers = new HashSet<>();
+        List<CreateTagDto> chunk = new ArrayList<>(CHUNK_SIZE);
+        long created = 0;
+        while (token != null && token != JsonToken.END_ARRAY) {
+            CreateTagDto dto = objectMapper.readValue(parser, CreateTagDto.class);
+            validate(dto, created + chunk.size());
+            chunk.add(dto);
+            if (chunk.size() == CHUNK_SIZE) {
+                created += saveChunk(chunk, knownUsers);
+                chunk.clear();
+            }
+            token = parser.nextToken();
+        }
+        if (!chunk.isEmpty()) {
+            created += saveChunk(chunk, knownUsers);
+        }
+        if (created == 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "No tags to import");
+        }
+        return created;
+    }
+
+    private void validate(CreateTagDto dto, long index) {
+        Set<ConstraintViolation<CreateTagDto>> violations = validator.validate(dto);
+        if (!violations.isEmpty()) {
+            throw new ValidationException(violations.stream()
+                .map(violation -> "Tag " + index + ": " + violation.getMessage())
+                .toList());
+        }
+    }
+
+    private int saveChunk(List<CreateTagDto> chunk, Set<Long> knownUsers) {
+        List<Long> unknownUsers = chunk.stream()
+            .map(CreateTagDto::getUserId)
+            .filter(userId -> !knownUsers.contains(userId))
+            .toList();
+        knownUsers.addAll(EntityLookup.findAllById(userRepository, unknownUsers, User::getId, "Users").keySet());
+        List<Tag> tags = chunk.stream()
+            .map(dto -> {
+                Tag tag = tagMapper.fromCreateTagDto(dto);
+                tag.setUser(userRepository.getReferenceById(dto.getUserId()));
+                return tag;
+            })
+            .toList();
+        tagRepository.saveAll(tags);
+        entityManager.flush();
+        entityManager.clear();
+        return tags.size();
+    }
+}
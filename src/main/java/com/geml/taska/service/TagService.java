@@ -1,17 +1,18 @@
 package com.geml.taska.service;
 
 import com.geml.taska.dto.CreateTagDto;
+import com.geml.taska.dto.CursorPageDto;
 import com.geml.taska.dto.DisplayTagDto;
 import com.geml.taska.mapper.TagMapper;
-import com.geml.taska.models.Notebook;
 import com.geml.taska.models.Tag;
 import com.geml.taska.models.User;
 import com.geml.taska.repository.NotebookRepository;
 import com.geml.taska.repository.TagRepository;
 import com.geml.taska.repository.UserRepository;
 import jakarta.transaction.Transactional;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
 import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
@@ -45,10 +46,13 @@ public class TagService {
     }
 
 
-    public List<DisplayTagDto> getAllTags() {
-        return tagRepository.findAll().stream()
+    public CursorPageDto<DisplayTagDto> getAllTags(final String after, final Integer limit) {
+        int pageSize = KeysetCursor.limit(limit);
+        List<DisplayTagDto> tags = tagRepository.findByIdGreaterThanOrderByIdAsc(
+                KeysetCursor.decode(after), KeysetCursor.fetchLimit(pageSize)).stream()
                 .map(tagMapper::toDisplayTagDto)
                 .collect(Collectors.toList());
+        return KeysetCursor.page(tags, pageSize, DisplayTagDto::getId);
     }
 
 
@@ -67,28 +71,26 @@ public class TagService {
         );
         tag.setUser(user);
         Tag saved = tagRepository.save(tag);
-        notebookService.invalidateNotebookCache();
         return tagMapper.toDisplayTagDto(saved);
     }
 
+    @Transactional
     public List<DisplayTagDto> createTags(List<CreateTagDto> dtos) {
         if (dtos == null || dtos.isEmpty()) {
             throw new IllegalArgumentException("List of CreateTagDto cannot be null or empty");
         }
 
+        Map<Long, User> users = EntityLookup.findAllById(userRepository,
+                dtos.stream().map(CreateTagDto::getUserId).toList(), User::getId, "Users");
         List<Tag> tagsToSave = dtos.stream()
                 .map(dto -> {
                     Tag tag = tagMapper.fromCreateTagDto(dto);
-                    User user = userRepository.findById(dto.getUserId()).orElseThrow(
-                            () -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found for tag: " + dto.getName())
-                    );
-                    tag.setUser(user);
+                    tag.setUser(users.get(dto.getUserId()));
                     return tag;
                 })
                 .collect(Collectors.toList());
 
         List<Tag> savedTags = tagRepository.saveAll(tagsToSave);
-        notebookService.invalidateNotebookCache();
         return savedTags.stream()
                 .map(tagMapper::toDisplayTagDto)
                 .collect(Collectors.toList());
@@ -98,23 +100,27 @@ public class TagService {
     public DisplayTagDto updateTag(final Long id, final CreateTagDto dto) {
         Tag tag = tagRepository.findById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+        String previousName = tag.getName();
         tag.setName(dto.getName());
         Tag saved = tagRepository.save(tag);
-        notebookService.invalidateNotebookCache();
+        notebookService.evictTagDependents(id, Arrays.asList(previousName, saved.getName()));
         return tagMapper.toDisplayTagDto(saved);
     }
 
+    /**
+     * Unlinks the tag from all notebooks with one statement, deletes it and
+     * evicts only the cached notebooks that carried it.
+     */
     @Transactional
     public void deleteTag(final Long id) {
         Tag tag = tagRepository.findById(id).orElseThrow(
             () -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Tag not found")
         );
-        Set<Notebook> notebooks = notebookRepository.findByTagsId(id);
-        notebooks.forEach(notebook -> {
-            notebook.getTags().remove(tag);
-            notebookRepository.save(notebook);
-        });
-        tagRepository.deleteById(id);
-        notebookService.invalidateNotebookCache();
+        List<Long> notebookIds = notebookRepository.findIdsByTagId(id);
+        int unlinked = tagRepository.bulkDeleteNotebookLinksByTagId(id);
+        tagRepository.bulkDeleteById(id);
+        log.debug("Deleted tag {} from {} notebooks", id, unlinked);
+        notebookService.evictNotebooks(notebookIds);
+        notebookService.evictTagDependents(id, Arrays.asList(tag.getName()));
     }
 }
@@ -1,16 +1,17 @@
 package com.geml.taska.service;
 
 import com.geml.taska.dto.CreateTaskDto;
+import com.geml.taska.dto.CursorPageDto;
 import com.geml.taska.dto.DisplayTaskDto;
 import com.geml.taska.mapper.TaskMapper;
 import com.geml.taska.models.Board;
-import com.geml.taska.models.Notebook;
 import com.geml.taska.models.Task;
 import com.geml.taska.repository.BoardRepository;
 import com.geml.taska.repository.NotebookRepository;
 import com.geml.taska.repository.TaskRepository;
 import jakarta.transaction.Transactional;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
@@ -44,10 +45,13 @@ public class TaskService {
     }
 
 
-    public List<DisplayTaskDto> getAllTasks() {
-        return taskRepository.findAll().stream()
+    public CursorPageDto<DisplayTaskDto> getAllTasks(final String after, final Integer limit) {
+        int pageSize = KeysetCursor.limit(limit);
+        List<DisplayTaskDto> tasks = taskRepository.findByIdGreaterThanOrderByIdAsc(
+                KeysetCursor.decode(after), KeysetCursor.fetchLimit(pageSize)).stream()
             .map(taskMapper::toDisplayTaskDto)
             .collect(Collectors.toList());
+        return KeysetCursor.page(tasks, pageSize, DisplayTaskDto::getId);
     }
 
 
@@ -68,11 +72,34 @@ public class TaskService {
             );
         item.setBoard(task);
         Task saved = taskRepository.save(item);
-        notebookService.invalidateNotebookCache();
         return taskMapper.toDisplayTaskDto(saved);
     }
 
 
+    /**
+     * Creates all tasks in one transaction, resolving their boards with one
+     * query and writing the rows in JDBC batches.
+     */
+    @Transactional
+    public List<DisplayTaskDto> createTasks(final List<CreateTaskDto> dtos) {
+        BulkRequests.checkSize(dtos, "Task");
+        Map<Long, Board> boards = EntityLookup.findAllById(boardRepository,
+            dtos.stream().map(CreateTaskDto::getBoardId).toList(), Board::getId, "Boards");
+        List<Task> tasks = dtos.stream()
+            .map(dto -> {
+                Task item = taskMapper.fromCreateTaskItemDto(dto);
+                item.setBoard(boards.get(dto.getBoardId()));
+                return item;
+            })
+            .toList();
+        List<DisplayTaskDto> created = taskRepository.saveAll(tasks).stream()
+            .map(taskMapper::toDisplayTaskDto)
+            .toList();
+        log.info("Created {} tasks in bulk", created.size());
+        return created;
+    }
+
+
     public DisplayTaskDto updateTask(final Long id, final CreateTaskDto dto) {
         Task item = taskRepository.findById(id)
             .orElseThrow(
@@ -81,23 +108,25 @@ public class TaskService {
         item.setTitle(dto.getTitle());
         item.setCompleted(dto.getCompleted());
         Task saved = taskRepository.save(item);
-        notebookService.invalidateNotebookCache();
+        notebookService.evictTaskDependents(id);
         return taskMapper.toDisplayTaskDto(saved);
     }
 
+    /**
+     * Deletes the task and its notebooks with set-based statements in one
+     * transaction and evicts their cached views once, after commit.
+     */
     @Transactional
     public void deleteTask(final Long id) {
-        Task task = taskRepository.findById(id).orElseThrow(
-            () -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Task not found")
-        );
-
-        List<Notebook> notebooks = notebookRepository.findByTaskId(id);
+        if (!taskRepository.existsById(id)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Task not found");
+        }
 
-        notebooks.forEach(notebook -> {
-            notebookService.deleteNotebook(notebook.getId());
-        });
+        List<Long> notebookIds = notebookRepository.findIdsByTaskId(id);
+        notebookRepository.bulkDeleteTagLinksByTaskId(id);
+        notebookRepository.bulkDeleteByTaskId(id);
+        taskRepository.bulkDeleteById(id);
 
-        taskRepository.delete(task);
-        notebookService.invalidateNotebookCache();
+        notebookService.evictDeletedTasks(List.of(id), notebookIds);
     }
 }
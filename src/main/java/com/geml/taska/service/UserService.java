@@ -1,14 +1,15 @@
 package com.geml.taska.service;
 
 import com.geml.taska.dto.CreateUserDto;
+import com.geml.taska.dto.CursorPageDto;
 import com.geml.taska.dto.DisplayUserDto;
 import com.geml.taska.exception.CustomNotFoundException;
 import com.geml.taska.mapper.UserMapper;
-import com.geml.taska.models.Board;
-import com.geml.taska.models.Tag;
 import com.geml.taska.models.User;
 import com.geml.taska.repository.BoardRepository;
+import com.geml.taska.repository.NotebookRepository;
 import com.geml.taska.repository.TagRepository;
+import com.geml.taska.repository.TaskRepository;
 import com.geml.taska.repository.UserRepository;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -25,8 +26,10 @@ public class UserService {
     private final UserMapper userMapper;
     private final BoardRepository boardRepository;
     private final TagRepository tagRepository;
-    private final BoardService boardService;
-    private final TagService tagService;
+    private final TaskRepository taskRepository;
+    private final NotebookRepository notebookRepository;
+    private final NotebookService notebookService;
+    private final SearchIndexService searchIndexService;
 
 
     public UserService(
@@ -34,22 +37,29 @@ public class UserService {
         final UserMapper userMapper,
         final BoardRepository boardRepository,
         final TagRepository tagRepository,
-        final BoardService boardService,
-        final TagService tagService
+        final TaskRepository taskRepository,
+        final NotebookRepository notebookRepository,
+        final NotebookService notebookService,
+        final SearchIndexService searchIndexService
     ) {
         this.userRepository = userRepository;
         this.userMapper = userMapper;
         this.boardRepository = boardRepository;
         this.tagRepository = tagRepository;
-        this.boardService = boardService;
-        this.tagService = tagService;
+        this.taskRepository = taskRepository;
+        this.notebookRepository = notebookRepository;
+        this.notebookService = notebookService;
+        this.searchIndexService = searchIndexService;
     }
 
 
-    public List<DisplayUserDto> getAllUsers() {
-        return userRepository.findAll().stream()
+    public CursorPageDto<DisplayUserDto> getAllUsers(final String after, final Integer limit) {
+        int pageSize = KeysetCursor.limit(limit);
+        List<DisplayUserDto> users = userRepository.findByIdGreaterThanOrderByIdAsc(
+                KeysetCursor.decode(after), KeysetCursor.fetchLimit(pageSize)).stream()
             .map(userMapper::toDisplayUserDto)
             .collect(Collectors.toList());
+        return KeysetCursor.page(users, pageSize, DisplayUserDto::getId);
     }
 
 
@@ -80,22 +90,29 @@ public class UserService {
     }
 
 
+    /**
+     * Deletes the user with everything they own using set-based statements in
+     * one transaction. Other users' notebooks may carry the deleted tags, so
+     * the notebook cache is invalidated as a whole, once, after commit.
+     */
     @Transactional
     public void deleteUser(final Long id) {
-        User user = userRepository.findById(id).orElseThrow(
-            () -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found")
-        );
-
-        List<Board> taskBoards = boardRepository.findByUserId(id);
-        taskBoards.forEach(taskBoard -> {
-            boardService.deleteBoard(taskBoard.getId());
-        });
-
-        List<Tag> tags = tagRepository.findByUserId(id);
-        tags.forEach(tag -> {
-            tagService.deleteTag(tag.getId());
-        });
-
-        userRepository.delete(user);
+        if (!userRepository.existsById(id)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found");
+        }
+
+        List<Long> boardIds = boardRepository.findIdsByUserId(id);
+        List<Long> notebookIds = notebookRepository.findIdsByUserId(id);
+        notebookRepository.bulkDeleteTagLinksByUserId(id);
+        tagRepository.bulkDeleteNotebookLinksByUserId(id);
+        notebookRepository.bulkDeleteByUserId(id);
+        taskRepository.bulkDeleteByUserId(id);
+        boardRepository.bulkDeleteByUserId(id);
+        tagRepository.bulkDeleteByUserId(id);
+        userRepository.bulkDeleteById(id);
+
+        searchIndexService.removeNotebooks(notebookIds);
+        searchIndexService.removeBoards(boardIds);
+        notebookService.invalidateNotebookCache();
     }
-}
\ No newline at end of file
+}
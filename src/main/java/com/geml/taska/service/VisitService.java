@@ -1,41 +1,175 @@
 package com.geml.taska.service;
 
+import com.geml.taska.config.LatencyHistogram;
+import com.geml.taska.config.RollingLatencyWindow;
 import com.geml.taska.dto.VisitDto;
+import com.geml.taska.dto.VisitWindowStatsDto;
+import com.geml.taska.models.VisitStat;
 import com.geml.taska.repository.VisitRepository;
-import jakarta.annotation.PostConstruct;
+import com.geml.taska.repository.VisitStatRepository;
+import com.geml.taska.repository.VisitWindowRepository;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Service
 @Slf4j
 public class VisitService {
+    private static final String UNMATCHED_ROUTE = "<unmatched>";
+    private static final String OTHER_METHOD = "OTHER";
+    private static final Set<String> STANDARD_METHODS =
+        Set.of("GET", "HEAD", "POST", "PUT", "PATCH", "DELETE", "OPTIONS", "TRACE");
+
     private final VisitRepository visitRepository;
+    private final VisitWindowRepository visitWindowRepository;
+    private final VisitStatRepository visitStatRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Object persistedLock = new Object();
+    private volatile Map<String, Long> persistedCounts;
 
-    public VisitService(VisitRepository visitRepository) {
+    public VisitService(
+        VisitRepository visitRepository,
+        VisitWindowRepository visitWindowRepository,
+        VisitStatRepository visitStatRepository,
+        TransactionTemplate transactionTemplate
+    ) {
         this.visitRepository = visitRepository;
+        this.visitWindowRepository = visitWindowRepository;
+        this.visitStatRepository = visitStatRepository;
+        this.transactionTemplate = transactionTemplate;
     }
 
-    @PostConstruct
-    public void init() {
-        log.debug("Initializing Visit Cache");
-        visitRepository.deleteAll();
-    }
-
-    public synchronized void incrementVisit(String url) {
-        VisitDto visitDto = visitRepository.findByUrl(url)
-            .orElseGet(() -> {
-                VisitDto newVisitDto = new VisitDto();
-                newVisitDto.setUrl(url);
-                newVisitDto.setVisitCount(0);
-                return newVisitDto;
-            });
-        visitDto.setVisitCount(visitDto.getVisitCount() + 1);
-        visitRepository.save(visitDto);
+    public void recordVisit(String method, String routePattern, long latencyNanos) {
+        String route = routeKey(method, routePattern);
+        visitRepository.increment(route);
+        visitWindowRepository.record(
+            route,
+            System.currentTimeMillis(),
+            TimeUnit.NANOSECONDS.toMicros(latencyNanos)
+        );
     }
 
-    public long getVisitCount(String url) {
-        return visitRepository.findByUrl(url)
+    public long getVisitCount(String method, String routePattern) {
+        String route = routeKey(method, routePattern);
+        long pending = visitRepository.findByRoute(route)
             .map(VisitDto::getVisitCount)
             .orElse(0L);
+        return getPersistedCounts().getOrDefault(route, 0L) + pending;
+    }
+
+    public List<VisitDto> getTopRoutes(int limit) {
+        Map<String, VisitDto> routes = new HashMap<>();
+        getPersistedCounts().forEach((route, count) -> {
+            VisitDto visitDto = new VisitDto();
+            visitDto.setRoute(route);
+            visitDto.setVisitCount(count);
+            routes.put(route, visitDto);
+        });
+        for (VisitDto pending : visitRepository.findAll()) {
+            VisitDto visitDto = routes.putIfAbsent(pending.getRoute(), pending);
+            if (visitDto != null) {
+                visitDto.setVisitCount(visitDto.getVisitCount() + pending.getVisitCount());
+                visitDto.setError(pending.getError());
+            }
+        }
+        return routes.values().stream()
+            .sorted(Comparator.comparingLong(VisitDto::getVisitCount).reversed())
+            .limit(limit)
+            .toList();
+    }
+
+    public List<VisitWindowStatsDto> getWindowStats(List<Integer> windowMinutes) {
+        long now = System.currentTimeMillis();
+        List<VisitWindowStatsDto> stats = new ArrayList<>();
+        visitWindowRepository.findAll().forEach((route, window) -> {
+            for (int minutes : windowMinutes) {
+                long[] counts = window.snapshot(now, minutes);
+                long requests = LatencyHistogram.totalCount(counts);
+                if (requests == 0) {
+                    continue;
+                }
+                stats.add(new VisitWindowStatsDto(
+                    route,
+                    minutes,
+                    requests,
+                    requests / RollingLatencyWindow.elapsedSeconds(now, minutes),
+                    LatencyHistogram.valueAtPercentile(counts, 50) / 1000.0,
+                    LatencyHistogram.valueAtPercentile(counts, 95) / 1000.0,
+                    LatencyHistogram.valueAtPercentile(counts, 99) / 1000.0
+                ));
+            }
+        });
+        stats.sort(Comparator.comparingInt(VisitWindowStatsDto::getWindowMinutes)
+            .thenComparing(Comparator.comparingLong(VisitWindowStatsDto::getRequests).reversed()));
+        return stats;
+    }
+
+    @Scheduled(
+        fixedDelayString = "${visits.flush-interval-ms:60000}",
+        initialDelayString = "${visits.flush-interval-ms:60000}"
+    )
+    public void flush() {
+        synchronized (persistedLock) {
+            Map<String, Long> deltas = visitRepository.collectUnflushed();
+            if (deltas.isEmpty()) {
+                return;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status ->
+                    deltas.forEach(visitStatRepository::addVisits)
+                );
+            } catch (RuntimeException e) {
+                visitRepository.restoreUnflushed(deltas);
+                log.error("Failed to flush visit statistics, will retry on next run", e);
+                return;
+            }
+            Map<String, Long> persisted = persistedCounts;
+            if (persisted != null) {
+                deltas.forEach((route, delta) -> persisted.merge(route, delta, Long::sum));
+            }
+            log.debug("Flushed visit statistics for {} routes", deltas.size());
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private Map<String, Long> getPersistedCounts() {
+        Map<String, Long> persisted = persistedCounts;
+        if (persisted == null) {
+            synchronized (persistedLock) {
+                persisted = persistedCounts;
+                if (persisted == null) {
+                    log.debug("Loading persisted visit statistics");
+                    persisted = new ConcurrentHashMap<>();
+                    for (VisitStat visitStat : visitStatRepository.findAll()) {
+                        persisted.put(visitStat.getRoute(), visitStat.getVisitCount());
+                    }
+                    persistedCounts = persisted;
+                }
+            }
+        }
+        return persisted;
+    }
+
+    /**
+     * Clients can send any method token, so methods outside the standard set
+     * share one key instead of each adding a persisted route.
+     */
+    private static String routeKey(String method, String routePattern) {
+        String methodKey = STANDARD_METHODS.contains(method) ? method : OTHER_METHOD;
+        return methodKey + " " + (routePattern != null ? routePattern : UNMATCHED_ROUTE);
     }
 }
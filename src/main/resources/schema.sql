@@ -0,0 +1,29 @@
+-- Runs after Hibernate has created or updated the tables
+-- (spring.jpa.defer-datasource-initialization), so every statement must be idempotent.
+
+ALTER TABLE notebooks ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('simple', coalesce(title, '')), 'A')
+        || setweight(to_tsvector('simple', coalesce(content, '')), 'B')
+    ) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_notebooks_search_vector ON notebooks USING GIN (search_vector);
+
+-- The trigram index on board titles needs the pg_trgm extension, which this script cannot
+-- install; TrigramIndexConfig creates it at startup once the extension is there.
+
+-- PostgreSQL does not index foreign keys; the set-based deletes find children by parent id.
+CREATE INDEX IF NOT EXISTS idx_boards_user_id ON boards (user_id);
+CREATE INDEX IF NOT EXISTS idx_tags_user_id ON tags (user_id);
+CREATE INDEX IF NOT EXISTS idx_tasks_board_id ON tasks (board_id);
+CREATE INDEX IF NOT EXISTS idx_notebooks_task_id ON notebooks (task_id);
+CREATE INDEX IF NOT EXISTS idx_notebook_tags_tag_id ON notebook_tags (tag_id);
+
+-- Entity ids come from pooled sequences (allocation size 50) so inserts can be batched.
+-- Move each sequence past the ids already in its table, e.g. rows created while the ids
+-- were identity columns; a sequence that is already ahead is left where it is.
+SELECT setval('users_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM users), (SELECT last_value FROM users_seq)));
+SELECT setval('boards_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM boards), (SELECT last_value FROM boards_seq)));
+SELECT setval('tasks_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM tasks), (SELECT last_value FROM tasks_seq)));
+SELECT setval('notebooks_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM notebooks), (SELECT last_value FROM notebooks_seq)));
+SELECT setval('tags_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM tags), (SELECT last_value FROM tags_seq)));
@@ -0,0 +1,74 @@
+package com.geml.taska.config;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class InvertedIndexTest {
+
+    private InvertedIndex index() {
+        InvertedIndex index = new InvertedIndex();
+        index.put(5, "Meeting notes", "About the roadmap");
+        index.put(2, "Grocery list", "Milk, eggs");
+        index.put(9, "Roadmap 2025", "Meeting with the team");
+        return index;
+    }
+
+    @Test
+    void searchMatchesAllTermsInIdOrder() {
+        InvertedIndex index = index();
+
+        assertArrayEquals(new long[] {5, 9}, index.search("meeting roadmap", 0, 10));
+        assertArrayEquals(new long[] {2}, index.search("MILK", 0, 10));
+        assertArrayEquals(new long[0], index.search("meeting milk", 0, 10));
+    }
+
+    @Test
+    void searchMatchesPrefixesAndTypos() {
+        InvertedIndex index = index();
+
+        assertArrayEquals(new long[] {5, 9}, index.search("road", 0, 10));
+        assertArrayEquals(new long[] {2}, index.search("grocry", 0, 10));
+        assertArrayEquals(new long[0], index.search("frocery", 0, 10));
+    }
+
+    @Test
+    void searchPagesAfterId() {
+        InvertedIndex index = index();
+
+        assertArrayEquals(new long[] {5}, index.search("meeting", 0, 1));
+        assertArrayEquals(new long[] {9}, index.search("meeting", 5, 10));
+    }
+
+    @Test
+    void putReplacesAndRemoveDropsDocument() {
+        InvertedIndex index = index();
+
+        index.put(5, "Shopping", null);
+        index.remove(9);
+
+        assertArrayEquals(new long[0], index.search("meeting", 0, 10));
+        assertArrayEquals(new long[] {5}, index.search("shopping", 0, 10));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void searchKeepsIdsBeyondIntRange() {
+        InvertedIndex index = index();
+        long largeId = Integer.MAX_VALUE + 10L;
+
+        index.put(largeId, "Meeting", null);
+
+        assertArrayEquals(new long[] {5, 9, largeId}, index.search("meeting", 0, 10));
+        assertArrayEquals(new long[] {largeId}, index.search("meeting", 9, 10));
+    }
+
+    @Test
+    void withinEditDistanceStopsAtLimit() {
+        assertTrue(InvertedIndex.withinEditDistance("roadmap", "raodmap", 2));
+        assertFalse(InvertedIndex.withinEditDistance("roadmap", "meeting", 2));
+    }
+}
@@ -0,0 +1,79 @@
+package com.geml.taska.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTest {
+
+    private static long[] counts(LatencyHistogram histogram) {
+        long[] counts = LatencyHistogram.emptyCounts();
+        histogram.addTo(counts);
+        return counts;
+    }
+
+    private static void assertWithinBound(long expected, long actual) {
+        assertTrue(actual >= expected && actual <= expected + expected / 8,
+            "expected " + expected + " within 12.5%, got " + actual);
+    }
+
+    @Test
+    void smallValuesAreExact() {
+        for (long value = 0; value < 8; value++) {
+            LatencyHistogram histogram = new LatencyHistogram();
+            histogram.record(value);
+
+            assertEquals(value, LatencyHistogram.valueAtPercentile(counts(histogram), 100));
+        }
+    }
+
+    @Test
+    void everyValueMapsToBucketWithinBound() {
+        for (long value = 8; value < 1L << 32; value += 1 + value / 3) {
+            LatencyHistogram histogram = new LatencyHistogram();
+            histogram.record(value);
+
+            assertWithinBound(value, LatencyHistogram.valueAtPercentile(counts(histogram), 100));
+        }
+    }
+
+    @Test
+    void percentilesSelectValueAtRank() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 1000; value++) {
+            histogram.record(value);
+        }
+        long[] counts = counts(histogram);
+
+        assertEquals(1000, LatencyHistogram.totalCount(counts));
+        assertWithinBound(500, LatencyHistogram.valueAtPercentile(counts, 50));
+        assertWithinBound(950, LatencyHistogram.valueAtPercentile(counts, 95));
+        assertWithinBound(990, LatencyHistogram.valueAtPercentile(counts, 99));
+        assertEquals(1, LatencyHistogram.valueAtPercentile(counts, 0));
+    }
+
+    @Test
+    void outOfRangeValuesAreClampedAndEmptyHistogramReturnsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        assertEquals(0, LatencyHistogram.valueAtPercentile(counts(histogram), 99));
+
+        histogram.record(-5);
+        histogram.record(Long.MAX_VALUE);
+        long[] counts = counts(histogram);
+
+        assertEquals(0, LatencyHistogram.valueAtPercentile(counts, 50));
+        assertEquals((1L << 32) - 1, LatencyHistogram.valueAtPercentile(counts, 100));
+    }
+
+    @Test
+    void resetClearsCounts() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(100);
+
+        histogram.reset();
+
+        assertEquals(0, LatencyHistogram.totalCount(counts(histogram)));
+    }
+}
@@ -0,0 +1,186 @@
+package com.geml.taska.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class LruCacheTest {
+
+    @Test
+    void getReturnsPutValue() {
+        LruCache<String, String> cache = new LruCache<>(10);
+
+        cache.put("a", "1");
+
+        assertEquals("1", cache.get("a"));
+        assertNull(cache.get("b"));
+    }
+
+    @Test
+    void putReplacesValueAndWeight() {
+        LruCache<String, String> cache = new LruCache<>(100, Duration.ZERO, String::length);
+
+        cache.put("a", "12345");
+        cache.put("a", "12");
+
+        assertEquals("12", cache.get("a"));
+        assertEquals(2, cache.getWeight());
+    }
+
+    @Test
+    void removeDropsEntryAndWeight() {
+        LruCache<String, String> cache = new LruCache<>(100, Duration.ZERO, String::length);
+        cache.put("a", "12345");
+
+        cache.remove("a");
+
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.getWeight());
+    }
+
+    @Test
+    void putEvictsWhenWeightExceedsMaximum() {
+        LruCache<Integer, String> cache = new LruCache<>(10, Duration.ZERO, String::length);
+
+        for (int i = 0; i < 20; i++) {
+            cache.put(i, "xxxx");
+        }
+
+        assertTrue(cache.getWeight() <= 10);
+        assertNotNull(cache.get(19));
+        assertEquals(cache.getWeight(), cache.getAll().size() * 4L);
+    }
+
+    @Test
+    void singleSegmentEvictsLeastRecentlyUsed() {
+        LruCache<Integer, String> cache = new LruCache<>(2);
+        cache.put(0, "a");
+        cache.put(16, "b");
+        cache.get(0);
+
+        cache.put(32, "c");
+
+        assertNotNull(cache.get(0));
+        assertNull(cache.get(16));
+        assertNotNull(cache.get(32));
+    }
+
+    @Test
+    void getReturnsNullForExpiredEntry() throws InterruptedException {
+        LruCache<String, String> cache = new LruCache<>(10, Duration.ofMillis(20), value -> 1);
+        cache.put("a", "1");
+
+        Thread.sleep(40);
+
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.getWeight());
+    }
+
+    @Test
+    void setMaximumWeightShrinksCache() {
+        LruCache<Integer, String> cache = new LruCache<>(100, Duration.ZERO, String::length);
+        for (int i = 0; i < 10; i++) {
+            cache.put(i, "xxxxx");
+        }
+
+        cache.setMaximumWeight(20);
+
+        assertTrue(cache.getWeight() <= 20);
+        assertEquals(20, cache.getMaximumWeight());
+    }
+
+    @Test
+    void statsCountHitsMissesLoadsAndEvictions() {
+        LruCache<Integer, String> cache = new LruCache<>(2);
+
+        cache.get(1, key -> "one");
+        cache.get(1, key -> "other");
+        cache.put(2, "two");
+        cache.put(3, "three");
+
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.getLoadCount());
+        assertEquals(1, cache.getEvictionCount());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void loadIsNotCachedWhenKeyIsRemovedWhileLoading() {
+        LruCache<String, String> cache = new LruCache<>(10);
+
+        String loaded = cache.get("a", key -> {
+            cache.remove("a");
+            return "stale";
+        });
+
+        assertEquals("stale", loaded);
+        assertNull(cache.get("a"));
+    }
+
+    @Test
+    void concurrentMissesShareOneLoad() throws Exception {
+        LruCache<String, String> cache = new LruCache<>(10);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<String> first = executor.submit(() -> cache.get("a", key -> {
+                loads.incrementAndGet();
+                loading.countDown();
+                await(release);
+                return "1";
+            }));
+            loading.await();
+            List<Future<String>> others = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                others.add(executor.submit(() -> cache.get("a", key -> {
+                    loads.incrementAndGet();
+                    return "other";
+                })));
+            }
+            release.countDown();
+
+            assertEquals("1", first.get(5, TimeUnit.SECONDS));
+            for (Future<String> other : others) {
+                assertEquals("1", other.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, loads.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void failedLoadIsRethrownAndNotCached() {
+        LruCache<String, String> cache = new LruCache<>(10);
+
+        assertThrows(IllegalStateException.class, () -> cache.get("a", key -> {
+            throw new IllegalStateException("boom");
+        }));
+
+        assertEquals("1", cache.get("a", key -> "1"));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
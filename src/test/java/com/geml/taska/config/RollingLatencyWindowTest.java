@@ -0,0 +1,58 @@
+package com.geml.taska.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+class RollingLatencyWindowTest {
+
+    private static final long MINUTE = 60_000L;
+    private static final long START = 28_000_000L * MINUTE;
+
+    @Test
+    void snapshotSumsSlotsWithinWindow() {
+        RollingLatencyWindow window = new RollingLatencyWindow();
+        window.record(START, 100);
+        window.record(START + 3 * MINUTE, 200);
+        window.record(START + 5 * MINUTE + 30_000, 300);
+
+        long now = START + 5 * MINUTE + 45_000;
+
+        assertEquals(1, LatencyHistogram.totalCount(window.snapshot(now, 1)));
+        assertEquals(2, LatencyHistogram.totalCount(window.snapshot(now, 5)));
+        assertEquals(3, LatencyHistogram.totalCount(window.snapshot(now, 6)));
+    }
+
+    @Test
+    void snapshotLeavesOutSlotsOlderThanWindow() {
+        RollingLatencyWindow window = new RollingLatencyWindow();
+        window.record(START, 100);
+
+        long[] counts = window.snapshot(START + RollingLatencyWindow.MAX_WINDOW_MINUTES * MINUTE,
+            RollingLatencyWindow.MAX_WINDOW_MINUTES);
+
+        assertEquals(0, LatencyHistogram.totalCount(counts));
+    }
+
+    @Test
+    void newMinuteRecyclesSlotOfSameIndex() {
+        RollingLatencyWindow window = new RollingLatencyWindow();
+        long recycled = START + (RollingLatencyWindow.MAX_WINDOW_MINUTES + 1) * MINUTE;
+        window.record(START, 100);
+        window.record(START, 100);
+
+        window.record(recycled, 5000);
+        window.record(START, 100);
+
+        long[] counts = window.snapshot(recycled, RollingLatencyWindow.MAX_WINDOW_MINUTES);
+        assertEquals(1, LatencyHistogram.totalCount(counts));
+        assertEquals(5000, LatencyHistogram.valueAtPercentile(counts, 100), 5000 / 8.0);
+    }
+
+    @Test
+    void elapsedSecondsCountsWholeMinutesAndCurrentPartialMinute() {
+        assertEquals(270.0, RollingLatencyWindow.elapsedSeconds(START + 30_000, 5));
+        assertEquals(1.0, RollingLatencyWindow.elapsedSeconds(START, 1));
+        assertEquals(840.5, RollingLatencyWindow.elapsedSeconds(START + 500, 15));
+    }
+}
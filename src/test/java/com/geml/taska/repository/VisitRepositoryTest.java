@@ -0,0 +1,107 @@
+package com.geml.taska.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.geml.taska.dto.VisitDto;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class VisitRepositoryTest {
+
+    private static void increment(VisitRepository repository, String route, int times) {
+        for (int i = 0; i < times; i++) {
+            repository.increment(route);
+        }
+    }
+
+    @Test
+    void incrementCountsVisitsPerRoute() {
+        VisitRepository repository = new VisitRepository(10);
+
+        increment(repository, "GET /api/users", 3);
+        increment(repository, "GET /api/tasks", 1);
+
+        assertEquals(3, repository.findByRoute("GET /api/users").orElseThrow().getVisitCount());
+        assertEquals(1, repository.findByRoute("GET /api/tasks").orElseThrow().getVisitCount());
+        assertEquals(2, repository.findAll().size());
+    }
+
+    @Test
+    void fullTableReplacesLeastCountedRouteAndInheritsItsCountAsError() {
+        VisitRepository repository = new VisitRepository(3);
+        increment(repository, "a", 5);
+        increment(repository, "b", 2);
+        increment(repository, "c", 4);
+
+        repository.increment("d");
+
+        assertTrue(repository.findByRoute("b").isEmpty());
+        assertEquals(5, repository.findByRoute("a").orElseThrow().getVisitCount());
+        assertEquals(4, repository.findByRoute("c").orElseThrow().getVisitCount());
+        VisitDto newcomer = repository.findByRoute("d").orElseThrow();
+        assertEquals(2, newcomer.getError());
+        assertEquals(1, newcomer.getVisitCount());
+    }
+
+    @Test
+    void collectUnflushedReturnsObservedVisitsOnlyOnce() {
+        VisitRepository repository = new VisitRepository(1);
+        increment(repository, "a", 2);
+        repository.increment("b");
+
+        assertEquals(Map.of("b", 1L), repository.collectUnflushed());
+        assertEquals(Map.of(), repository.collectUnflushed());
+        assertEquals(0, repository.findByRoute("b").orElseThrow().getVisitCount());
+
+        increment(repository, "b", 2);
+
+        assertEquals(Map.of("b", 2L), repository.collectUnflushed());
+    }
+
+    @Test
+    void toDtoSubtractsErrorAndFlushedVisits() {
+        VisitRepository repository = new VisitRepository(1);
+        increment(repository, "a", 3);
+        increment(repository, "b", 2);
+        repository.collectUnflushed();
+        increment(repository, "b", 4);
+
+        VisitDto visit = repository.findByRoute("b").orElseThrow();
+
+        assertEquals(3, visit.getError());
+        assertEquals(4, visit.getVisitCount());
+    }
+
+    @Test
+    void restoreUnflushedReturnsDeltasToNextFlush() {
+        VisitRepository repository = new VisitRepository(10);
+        increment(repository, "a", 2);
+        Map<String, Long> failed = repository.collectUnflushed();
+        repository.increment("a");
+
+        repository.restoreUnflushed(failed);
+
+        assertEquals(3, repository.findByRoute("a").orElseThrow().getVisitCount());
+        assertEquals(Map.of("a", 3L), repository.collectUnflushed());
+    }
+
+    @Test
+    void restoreUnflushedIgnoresEvictedRoutes() {
+        VisitRepository repository = new VisitRepository(1);
+        repository.increment("a");
+        Map<String, Long> failed = repository.collectUnflushed();
+        increment(repository, "b", 2);
+
+        repository.restoreUnflushed(failed);
+
+        assertTrue(repository.findByRoute("a").isEmpty());
+        assertEquals(Map.of("b", 2L), repository.collectUnflushed());
+    }
+
+    @Test
+    void constructorRejectsNonPositiveCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new VisitRepository(0));
+    }
+}
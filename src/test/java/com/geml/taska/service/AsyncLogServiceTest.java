@@ -0,0 +1,146 @@
+package com.geml.taska.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.geml.taska.models.LogFile;
+import com.geml.taska.service.AsyncLogService.LogStatus;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+class AsyncLogServiceTest {
+
+    private static final LocalDate DATE = LocalDate.of(2024, 1, 2);
+    private static final LocalDate NEXT_DATE = LocalDate.of(2024, 1, 3);
+
+    @TempDir
+    private Path logDirectory;
+
+    private Path exportDirectory;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        exportDirectory = logDirectory.resolve("exports");
+        Files.writeString(logDirectory.resolve("app-2024-01-02.10.log"), "third\n");
+        Files.writeString(logDirectory.resolve("app-2024-01-02.0.log"), "first\n");
+        Files.writeString(logDirectory.resolve("app-2024-01-02.2.log"), "second\n");
+        Files.writeString(logDirectory.resolve("app-2024-01-02-combined.log"), "ignored\n");
+        Files.writeString(logDirectory.resolve("app-2024-01-03.0.log"), "next day entries\n");
+    }
+
+    private AsyncLogService service(Duration ttl, long maxBytes) {
+        return service(Runnable::run, ttl, maxBytes);
+    }
+
+    private AsyncLogService service(Executor executor, Duration ttl, long maxBytes) {
+        return new AsyncLogService(executor, objectMapper,
+            logDirectory.toString(), exportDirectory.toString(), ttl, maxBytes);
+    }
+
+    @Test
+    void createLogFileCombinesRolledFilesInRotationOrder() throws Exception {
+        AsyncLogService asyncLogService = service(Duration.ofHours(1), 1024);
+
+        String logId = asyncLogService.createLogFile(DATE);
+
+        LogFile logFile = asyncLogService.getLogFile(UUID.fromString(logId));
+        assertEquals(LogStatus.COMPLETED, logFile.getStatus());
+        assertEquals(19, logFile.getCopiedBytes());
+        assertEquals(exportDirectory, Path.of(logFile.getFilePath()).getParent());
+        assertEquals("first\nsecond\nthird\n", Files.readString(Path.of(logFile.getFilePath())));
+    }
+
+    @Test
+    void createLogFileReusesCompletedJobForSameDate() throws Exception {
+        AsyncLogService asyncLogService = service(Duration.ofHours(1), 1024);
+
+        String first = asyncLogService.createLogFile(DATE);
+        String second = asyncLogService.createLogFile(DATE);
+
+        assertEquals(first, second);
+    }
+
+    @Test
+    void createLogFileOverQuotaThrowsInsufficientStorage() {
+        AsyncLogService asyncLogService = service(Duration.ofHours(1), 10);
+
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+            () -> asyncLogService.createLogFile(DATE));
+
+        assertEquals(HttpStatus.INSUFFICIENT_STORAGE, exception.getStatusCode());
+    }
+
+    @Test
+    void createLogFileEvictsOlderFilesToFitNewJob() throws Exception {
+        AsyncLogService asyncLogService = service(Duration.ofHours(1), 30);
+        String first = asyncLogService.createLogFile(DATE);
+
+        String next = asyncLogService.createLogFile(NEXT_DATE);
+
+        assertEquals(LogStatus.NOT_FOUND, asyncLogService.getLogCreationStatus(UUID.fromString(first)).getStatus());
+        LogFile logFile = asyncLogService.getLogFile(UUID.fromString(next));
+        assertEquals(LogStatus.COMPLETED, logFile.getStatus());
+        assertTrue(Files.exists(Path.of(logFile.getFilePath())));
+    }
+
+    @Test
+    void createLogFileRefusesQuotaReservedByRunningJobUntilItIsCancelled() throws Exception {
+        List<Runnable> queued = new ArrayList<>();
+        AsyncLogService asyncLogService = service(queued::add, Duration.ofHours(1), 30);
+        String running = asyncLogService.createLogFile(DATE);
+
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+            () -> asyncLogService.createLogFile(NEXT_DATE));
+
+        assertEquals(HttpStatus.INSUFFICIENT_STORAGE, exception.getStatusCode());
+
+        asyncLogService.cancelLogFile(UUID.fromString(running));
+        queued.forEach(Runnable::run);
+        queued.clear();
+
+        assertEquals(LogStatus.CANCELLED, asyncLogService.getLogCreationStatus(UUID.fromString(running)).getStatus());
+        String next = asyncLogService.createLogFile(NEXT_DATE);
+        queued.forEach(Runnable::run);
+        assertEquals(LogStatus.COMPLETED, asyncLogService.getLogCreationStatus(UUID.fromString(next)).getStatus());
+    }
+
+    @Test
+    void finishedJobsSurviveRestart() throws Exception {
+        String logId = service(Duration.ofHours(1), 1024).createLogFile(DATE);
+
+        AsyncLogService restarted = service(Duration.ofHours(1), 1024);
+        restarted.loadFinishedJobs();
+
+        assertEquals(LogStatus.COMPLETED, restarted.getLogCreationStatus(UUID.fromString(logId)).getStatus());
+        assertEquals(logId, restarted.createLogFile(DATE));
+    }
+
+    @Test
+    void evictExpiredDeletesJobAndFiles() throws Exception {
+        AsyncLogService asyncLogService = service(Duration.ZERO, 1024);
+        String logId = asyncLogService.createLogFile(DATE);
+        Path combined = Path.of(asyncLogService.getLogFile(UUID.fromString(logId)).getFilePath());
+
+        asyncLogService.evictExpired();
+
+        assertEquals(LogStatus.NOT_FOUND, asyncLogService.getLogCreationStatus(UUID.fromString(logId)).getStatus());
+        assertFalse(Files.exists(combined));
+        assertFalse(Files.exists(exportDirectory.resolve(logId + ".json")));
+    }
+}
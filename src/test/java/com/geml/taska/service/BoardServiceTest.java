@@ -3,11 +3,14 @@ package com.geml.taska.service;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
-import static org.mockito.Mockito.doNothing;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -17,20 +20,23 @@ import com.geml.taska.dto.CreateBoardDto;
 import com.geml.taska.dto.DisplayBoardDto;
 import com.geml.taska.mapper.BoardMapper;
 import com.geml.taska.models.Board;
-import com.geml.taska.models.Task;
 import com.geml.taska.models.User;
 import com.geml.taska.repository.BoardRepository;
+import com.geml.taska.repository.NotebookRepository;
 import com.geml.taska.repository.TaskRepository;
 import com.geml.taska.repository.UserRepository;
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.server.ResponseStatusException;
 
@@ -47,11 +53,17 @@ class BoardServiceTest {
     @Mock
     private TaskRepository taskRepository;
 
+    @Mock
+    private NotebookRepository notebookRepository;
+
     @Mock
     private UserRepository userRepository;
 
     @Mock
-    private TaskService taskService;
+    private NotebookService notebookService;
+
+    @Mock
+    private SearchIndexService searchIndexService;
 
     @InjectMocks
     private BoardService boardService;
@@ -87,31 +99,31 @@ class BoardServiceTest {
     @Test
     void getAllBoardsNoFilterReturnsAllBoards() {
         List<Board> boards = List.of(board);
-        when(boardRepository.findAll()).thenReturn(boards);
+        when(boardRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Limit.class))).thenReturn(boards);
         when(boardMapper.toDisplayBoardDto(any(Board.class))).thenReturn(displayBoardDto);
 
-        List<DisplayBoardDto> result = boardService.getAllBoards(null);
+        List<DisplayBoardDto> result = boardService.getAllBoards(null, null, null).getItems();
 
         assertFalse(result.isEmpty());
         assertEquals(1, result.size());
         assertEquals(displayBoardDto, result.get(0));
-        verify(boardRepository, times(1)).findAll();
-        verify(boardRepository, never()).searchByTitle(anyString());
+        verify(boardRepository, times(1)).findByIdGreaterThanOrderByIdAsc(eq(0L), any(Limit.class));
+        verify(boardRepository, never()).searchByTitle(anyString(), anyLong(), any(Limit.class));
     }
 
     @Test
     void getAllBoardsWithFilterReturnsFilteredBoards() {
         List<Board> boards = List.of(board);
-        when(boardRepository.searchByTitle(anyString())).thenReturn(boards);
+        when(boardRepository.searchByTitle(eq("Test"), eq(0L), any(Limit.class))).thenReturn(boards);
         when(boardMapper.toDisplayBoardDto(any(Board.class))).thenReturn(displayBoardDto);
 
-        List<DisplayBoardDto> result = boardService.getAllBoards("Test");
+        List<DisplayBoardDto> result = boardService.getAllBoards("Test", null, null).getItems();
 
         assertFalse(result.isEmpty());
         assertEquals(1, result.size());
         assertEquals(displayBoardDto, result.get(0));
-        verify(boardRepository, times(1)).searchByTitle(anyString());
-        verify(boardRepository, never()).findAll();
+        verify(boardRepository, times(1)).searchByTitle(eq("Test"), eq(0L), any(Limit.class));
+        verify(boardRepository, never()).findByIdGreaterThanOrderByIdAsc(anyLong(), any(Limit.class));
     }
 
     @Test
@@ -161,6 +173,59 @@ class BoardServiceTest {
         verify(boardRepository, never()).save(any(Board.class));
     }
 
+    @Test
+    void createBoardsResolvesUsersOnceAndIndexesBoards() {
+        CreateBoardDto secondDto = new CreateBoardDto();
+        secondDto.setTitle("Second");
+        secondDto.setDescription("Description");
+        secondDto.setUserId(1L);
+        Board second = new Board();
+        second.setId(2L);
+        second.setTitle("Second");
+        second.setDescription("Description");
+        DisplayBoardDto secondDisplayDto = new DisplayBoardDto();
+        secondDisplayDto.setId(2L);
+        when(userRepository.findAllById(Set.of(1L))).thenReturn(List.of(user));
+        when(boardMapper.fromCreateBoardDto(any(CreateBoardDto.class))).thenReturn(board, second);
+        when(boardRepository.saveAll(anyList())).thenReturn(List.of(board, second));
+        when(boardMapper.toDisplayBoardDto(any(Board.class))).thenReturn(displayBoardDto, secondDisplayDto);
+
+        List<DisplayBoardDto> result = boardService.createBoards(List.of(createBoardDto, secondDto));
+
+        assertEquals(List.of(displayBoardDto, secondDisplayDto), result);
+        assertSame(user, second.getUser());
+        verify(userRepository, times(1)).findAllById(Set.of(1L));
+        verify(userRepository, never()).findById(anyLong());
+        verify(searchIndexService, times(1)).indexBoard(1L, "Test Board", "Test Description");
+        verify(searchIndexService, times(1)).indexBoard(2L, "Second", "Description");
+    }
+
+    @Test
+    void createBoardsNonExistingUsersThrowsNotFound() {
+        CreateBoardDto secondDto = new CreateBoardDto();
+        secondDto.setTitle("Second");
+        secondDto.setUserId(2L);
+        when(userRepository.findAllById(Set.of(1L, 2L))).thenReturn(List.of(user));
+
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+            () -> boardService.createBoards(List.of(createBoardDto, secondDto)));
+
+        assertEquals(HttpStatus.NOT_FOUND, exception.getStatusCode());
+        assertEquals("Users not found: [2]", exception.getReason());
+        verify(boardRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void createBoardsTooManyItemsThrowsBadRequest() {
+        List<CreateBoardDto> dtos = Collections.nCopies(BulkRequests.MAX_SIZE + 1, createBoardDto);
+
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+            () -> boardService.createBoards(dtos));
+
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+        verify(boardRepository, never()).saveAll(anyList());
+    }
+
     @Test
     void updateBoardExistingIdReturnsUpdatedBoard() {
         when(boardRepository.findById(anyLong())).thenReturn(Optional.of(board));
@@ -185,41 +250,29 @@ class BoardServiceTest {
     }
 
     @Test
-    void deleteBoardExistingIdDeletesBoard() {
-        List<Task> tasks = new ArrayList<>();
-        Task task = new Task();
-        task.setId(1L);
-        tasks.add(task);
-        when(boardRepository.findById(anyLong())).thenReturn(Optional.of(board));
-        when(taskRepository.findByBoardId(anyLong())).thenReturn(tasks);
-        doNothing().when(taskService).deleteTask(anyLong());
-        doNothing().when(boardRepository).delete(any(Board.class));
+    void deleteBoardExistingIdDeletesBoardInBulk() {
+        when(boardRepository.existsById(1L)).thenReturn(true);
+        when(taskRepository.findIdsByBoardId(1L)).thenReturn(List.of(2L));
+        when(notebookRepository.findIdsByBoardId(1L)).thenReturn(List.of(3L));
 
         boardService.deleteBoard(1L);
 
-        verify(boardRepository, times(1)).delete(any(Board.class));
-        verify(taskService, times(1)).deleteTask(anyLong());
+        InOrder inOrder = inOrder(notebookRepository, taskRepository, boardRepository);
+        inOrder.verify(notebookRepository).bulkDeleteTagLinksByBoardId(1L);
+        inOrder.verify(notebookRepository).bulkDeleteByBoardId(1L);
+        inOrder.verify(taskRepository).bulkDeleteByBoardId(1L);
+        inOrder.verify(boardRepository).bulkDeleteById(1L);
+        verify(notebookService, times(1)).evictDeletedTasks(List.of(2L), List.of(3L));
+        verify(searchIndexService).removeBoard(1L);
     }
 
     @Test
     void deleteBoardNonExistingIdThrowsNotFound() {
-        when(boardRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(boardRepository.existsById(anyLong())).thenReturn(false);
 
         ResponseStatusException exception = assertThrows(ResponseStatusException.class, () -> boardService.deleteBoard(1L));
 
         assertEquals(HttpStatus.NOT_FOUND, exception.getStatusCode());
-        verify(boardRepository, never()).delete(any(Board.class));
-    }
-    
-    @Test
-    void deleteBoardExistingIdWithNoTasksDeletesBoard() {
-        when(boardRepository.findById(anyLong())).thenReturn(Optional.of(board));
-        when(taskRepository.findByBoardId(anyLong())).thenReturn(new ArrayList<>());
-        doNothing().when(boardRepository).delete(any(Board.class));
-
-        boardService.deleteBoard(1L);
-
-        verify(boardRepository, times(1)).delete(any(Board.class));
-        verify(taskService, never()).deleteTask(anyLong());
+        verify(boardRepository, never()).bulkDeleteById(anyLong());
     }
 }
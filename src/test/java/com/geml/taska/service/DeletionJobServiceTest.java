@@ -0,0 +1,151 @@
+package com.geml.taska.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.geml.taska.dto.DeletionJobStatusDto;
+import com.geml.taska.repository.BoardRepository;
+import com.geml.taska.repository.NotebookRepository;
+import com.geml.taska.repository.TaskRepository;
+import com.geml.taska.repository.UserRepository;
+import com.geml.taska.service.DeletionJobService.DeletionStatus;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.server.ResponseStatusException;
+
+@ExtendWith(MockitoExtension.class)
+class DeletionJobServiceTest {
+
+    @Mock
+    private NotebookRepository notebookRepository;
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private BoardRepository boardRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private NotebookService notebookService;
+
+    @Mock
+    private BoardService boardService;
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private DeletionJobService deletionJobService;
+
+    @BeforeEach
+    void setUp() {
+        deletionJobService = new DeletionJobService(notebookRepository, taskRepository, boardRepository,
+            userRepository, notebookService, boardService, userService, transactionManager, Runnable::run, 2,
+            Duration.ofHours(1));
+    }
+
+    @Test
+    void startUserDeletionDeletesInChunksAndReportsProgress() {
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(notebookRepository.countByTaskBoardUserId(1L)).thenReturn(3L);
+        when(taskRepository.countByBoardUserId(1L)).thenReturn(1L);
+        when(notebookRepository.findIdsByUserId(eq(1L), any(Limit.class))).thenReturn(List.of(1L, 2L), List.of(3L));
+        when(taskRepository.findIdsByUserId(eq(1L), any(Limit.class))).thenReturn(List.of(7L));
+        when(notebookRepository.findIdsByTaskIds(List.of(7L))).thenReturn(List.of());
+
+        String jobId = deletionJobService.startUserDeletion(1L);
+
+        DeletionJobStatusDto status = deletionJobService.getStatus(UUID.fromString(jobId));
+        assertEquals(DeletionStatus.COMPLETED, status.getStatus());
+        assertEquals(3L, status.getDeletedNotebooks());
+        assertEquals(1L, status.getDeletedTasks());
+        verify(notebookRepository).deleteAllByIdInBatch(List.of(1L, 2L));
+        verify(notebookRepository).deleteAllByIdInBatch(List.of(3L));
+        verify(notebookService).evictDeletedNotebooks(List.of(1L, 2L));
+        verify(taskRepository).deleteAllByIdInBatch(List.of(7L));
+        verify(notebookService).evictDeletedTasks(List.of(7L), List.of());
+        verify(userService).deleteUser(1L);
+    }
+
+    @Test
+    void startBoardDeletionRecordsFailure() {
+        when(boardRepository.existsById(1L)).thenReturn(true);
+        when(notebookRepository.findIdsByBoardId(eq(1L), any(Limit.class))).thenReturn(List.of());
+        when(taskRepository.findIdsByBoardId(eq(1L), any(Limit.class))).thenReturn(List.of());
+        doThrow(new IllegalStateException("boom")).when(boardService).deleteBoard(1L);
+
+        String jobId = deletionJobService.startBoardDeletion(1L);
+
+        DeletionJobStatusDto status = deletionJobService.getStatus(UUID.fromString(jobId));
+        assertEquals(DeletionStatus.FAILED, status.getStatus());
+        assertEquals("boom", status.getErrorMessage());
+    }
+
+    @Test
+    void evictExpiredDropsFinishedJobsOlderThanTtl() {
+        deletionJobService = new DeletionJobService(notebookRepository, taskRepository, boardRepository,
+            userRepository, notebookService, boardService, userService, transactionManager, Runnable::run, 2,
+            Duration.ZERO);
+        when(boardRepository.existsById(1L)).thenReturn(true);
+        when(notebookRepository.findIdsByBoardId(eq(1L), any(Limit.class))).thenReturn(List.of());
+        when(taskRepository.findIdsByBoardId(eq(1L), any(Limit.class))).thenReturn(List.of());
+        UUID jobId = UUID.fromString(deletionJobService.startBoardDeletion(1L));
+
+        deletionJobService.evictExpired();
+
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+            () -> deletionJobService.getStatus(jobId));
+        assertEquals(HttpStatus.NOT_FOUND, exception.getStatusCode());
+    }
+
+    @Test
+    void evictExpiredKeepsJobsWithinTtl() {
+        when(boardRepository.existsById(1L)).thenReturn(true);
+        when(notebookRepository.findIdsByBoardId(eq(1L), any(Limit.class))).thenReturn(List.of());
+        when(taskRepository.findIdsByBoardId(eq(1L), any(Limit.class))).thenReturn(List.of());
+        UUID jobId = UUID.fromString(deletionJobService.startBoardDeletion(1L));
+
+        deletionJobService.evictExpired();
+
+        assertEquals(DeletionStatus.COMPLETED, deletionJobService.getStatus(jobId).getStatus());
+    }
+
+    @Test
+    void startUserDeletionNonExistingIdThrowsNotFound() {
+        when(userRepository.existsById(1L)).thenReturn(false);
+
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+            () -> deletionJobService.startUserDeletion(1L));
+
+        assertEquals(HttpStatus.NOT_FOUND, exception.getStatusCode());
+        verify(userService, never()).deleteUser(1L);
+    }
+
+    @Test
+    void getStatusUnknownJobThrowsNotFound() {
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+            () -> deletionJobService.getStatus(UUID.randomUUID()));
+
+        assertEquals(HttpStatus.NOT_FOUND, exception.getStatusCode());
+    }
+}
@@ -0,0 +1,107 @@
+package com.geml.taska.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.server.ResponseStatusException;
+
+class LogSearchServiceTest {
+
+    private static final String FROM = "2024-01-02T00:00:00";
+    private static final String TO = "2024-01-02T23:59:59";
+    private static final String ERROR_ENTRY = """
+        2024-01-02 10:05:00.000 [main] ERROR com.geml.taska.service.TaskService - Failed to save task
+        java.lang.IllegalStateException: boom
+        \tat com.geml.taska.service.TaskService.save(TaskService.java:10)
+        """;
+
+    @TempDir
+    private Path logDirectory;
+
+    private ThreadPoolTaskExecutor executor;
+    private LogSearchService logSearchService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Files.writeString(logDirectory.resolve("app-2024-01-02.0.log"),
+            "2024-01-02 10:00:00.000 [main] INFO  com.geml.taska.service.UserService - Created user 1\n"
+                + ERROR_ENTRY
+                + "2024-01-02 11:00:00.000 [http-nio-8000-exec-1] WARN  com.geml.taska.config.CacheConfig - Cache miss\n");
+        Files.writeString(logDirectory.resolve("app-2024-01-02.1.log"),
+            "2024-01-02 12:00:00.000 [main] INFO  com.geml.taska.service.UserService - Created user 2\n");
+        AsyncLogService asyncLogService = new AsyncLogService(Runnable::run, new ObjectMapper(),
+            logDirectory.toString(), logDirectory.resolve("exports").toString(), Duration.ofHours(1), 1024);
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(2);
+        executor.initialize();
+        logSearchService = new LogSearchService(asyncLogService, executor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    private String search(LogSearchService.Query query) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        logSearchService.search(query, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void searchByLevelReturnsWholeEntryWithContinuationLines() throws Exception {
+        String result = search(LogSearchService.Query.of(FROM, TO, List.of("error"), null, "boom", false, null));
+
+        assertEquals(ERROR_ENTRY, result);
+    }
+
+    @Test
+    void searchByLoggerReturnsEntriesOfRotatedFilesInOrder() throws Exception {
+        String result = search(LogSearchService.Query.of(
+            FROM, TO, null, "com.geml.taska.service.UserService", null, false, null));
+
+        assertEquals(List.of("Created user 1", "Created user 2"),
+            result.lines().map(line -> line.substring(line.indexOf(" - ") + 3)).toList());
+    }
+
+    @Test
+    void searchByTimeRangeSkipsEntriesOutsideIt() throws Exception {
+        String result = search(LogSearchService.Query.of(
+            "2024-01-02T10:30:00", "2024-01-02T11:30:00", null, null, null, false, null));
+
+        assertEquals(
+            "2024-01-02 11:00:00.000 [http-nio-8000-exec-1] WARN  com.geml.taska.config.CacheConfig - Cache miss\n",
+            result);
+    }
+
+    @Test
+    void searchByRegexStopsAtLimit() throws Exception {
+        String result = search(LogSearchService.Query.of(FROM, TO, null, null, "Created user \\d", true, 1));
+
+        assertEquals(
+            "2024-01-02 10:00:00.000 [main] INFO  com.geml.taska.service.UserService - Created user 1\n",
+            result);
+    }
+
+    @Test
+    void queryWithUnknownLevelThrowsBadRequest() {
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+            () -> LogSearchService.Query.of(FROM, TO, List.of("FATAL"), null, null, false, null));
+
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+    }
+}
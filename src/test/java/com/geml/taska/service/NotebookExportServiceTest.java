@@ -0,0 +1,82 @@
+package com.geml.taska.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.geml.taska.repository.NotebookRepository;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.server.ResponseStatusException;
+
+@ExtendWith(MockitoExtension.class)
+class NotebookExportServiceTest {
+
+    @Mock
+    private NotebookRepository notebookRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private NotebookExportService notebookExportService;
+
+    @BeforeEach
+    void setUp() {
+        notebookExportService = new NotebookExportService(notebookRepository, objectMapper, transactionManager);
+    }
+
+    private Stream<Object[]> rows() {
+        return Stream.of(
+            new Object[] {1L, "First", "Content", 1L, "work", 5L, "Task"},
+            new Object[] {1L, "First", "Content", 2L, "home", 5L, "Task"},
+            new Object[] {2L, "Second", "Content", null, null, null, null}
+        );
+    }
+
+    @Test
+    void exportJsonWritesOneElementPerNotebook() throws Exception {
+        when(notebookRepository.streamNotebooksFullWithTagFilter(null)).thenReturn(rows());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        notebookExportService.export(null, NotebookExportService.Format.JSON, out);
+
+        JsonNode notebooks = objectMapper.readTree(out.toByteArray());
+        assertEquals(2, notebooks.size());
+        assertEquals(2, notebooks.get(0).get("tags").size());
+        assertEquals(5L, notebooks.get(0).get("task").get("id").asLong());
+        assertEquals(0, notebooks.get(1).get("tags").size());
+    }
+
+    @Test
+    void exportNdjsonWritesOneLinePerNotebook() throws Exception {
+        when(notebookRepository.streamNotebooksFullWithTagFilter("work")).thenReturn(rows());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        notebookExportService.export("work", NotebookExportService.Format.NDJSON, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(1L, objectMapper.readTree(lines[0]).get("id").asLong());
+        assertEquals(2L, objectMapper.readTree(lines[1]).get("id").asLong());
+    }
+
+    @Test
+    void parseUnknownFormatThrowsBadRequest() {
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+            () -> NotebookExportService.Format.parse("xml"));
+
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+    }
+}
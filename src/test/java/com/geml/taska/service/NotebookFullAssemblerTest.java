@@ -0,0 +1,56 @@
+package com.geml.taska.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import com.geml.taska.dto.DisplayNotebookFullDto;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class NotebookFullAssemblerTest {
+
+    @Test
+    void assembleGroupsAdjacentRowsInQueryOrder() {
+        List<Object[]> rows = List.of(
+            new Object[] {3L, "Third", "Content", 1L, "work", 7L, "Task"},
+            new Object[] {3L, "Third", "Content", 2L, "home", 7L, "Task"},
+            new Object[] {5L, "Fifth", "Content", null, null, null, null},
+            new Object[] {8L, "Eighth", "Content", 1L, "work", 7L, "Task"}
+        );
+
+        List<DisplayNotebookFullDto> result = NotebookFullAssembler.assemble(rows);
+
+        assertEquals(List.of(3L, 5L, 8L), result.stream().map(DisplayNotebookFullDto::getId).toList());
+        assertEquals(2, result.get(0).getTags().size());
+        assertEquals(0, result.get(1).getTags().size());
+        assertNull(result.get(1).getTask());
+        assertSame(result.get(0).getTask(), result.get(2).getTask());
+        assertSame(result.get(0).getTags().get(0), result.get(2).getTags().get(0));
+    }
+
+    @Test
+    void streamingAssemblerKeepsOnlyCurrentNotebookInterned() {
+        NotebookFullAssembler assembler = NotebookFullAssembler.streaming();
+        List<DisplayNotebookFullDto> emitted = new ArrayList<>();
+
+        for (long id = 1; id <= 1000; id++) {
+            DisplayNotebookFullDto first = assembler.accept(new Object[] {id, "Title", "Content", id, "a", id, "Task"});
+            DisplayNotebookFullDto second = assembler.accept(
+                new Object[] {id, "Title", "Content", id + 10_000, "b", id, "Task"});
+            assertNull(second);
+            if (first != null) {
+                emitted.add(first);
+            }
+            assertEquals(3, assembler.internedCount());
+        }
+        DisplayNotebookFullDto last = assembler.finish();
+
+        assertNotNull(last);
+        assertEquals(999, emitted.size());
+        assertEquals(2, last.getTags().size());
+        assertEquals(1000L, last.getTask().getId());
+    }
+}
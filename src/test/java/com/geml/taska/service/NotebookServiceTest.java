@@ -4,11 +4,15 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyFloat;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -17,6 +21,7 @@ import static org.mockito.Mockito.when;
 
 import com.geml.taska.config.CacheConfig;
 import com.geml.taska.dto.CreateNotebookDto;
+import com.geml.taska.dto.CursorPageDto;
 import com.geml.taska.dto.DisplayNotebookDto;
 import com.geml.taska.dto.DisplayNotebookFullDto;
 import com.geml.taska.exception.ValidationException;
@@ -25,19 +30,24 @@ import com.geml.taska.models.Notebook;
 import com.geml.taska.models.Tag;
 import com.geml.taska.models.Task;
 import com.geml.taska.repository.NotebookRepository;
+import com.geml.taska.repository.NotebookSearchHit;
 import com.geml.taska.repository.TagRepository;
 import com.geml.taska.repository.TaskRepository;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Function;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.stubbing.Answer;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.server.ResponseStatusException;
 
@@ -59,6 +69,9 @@ class NotebookServiceTest {
     @Mock
     private CacheConfig cacheConfig;
 
+    @Mock
+    private SearchIndexService searchIndexService;
+
     @InjectMocks
     private NotebookService notebookService;
 
@@ -100,83 +113,148 @@ class NotebookServiceTest {
     }
 
     @Test
-    void getAllNotebooksReturnsAllNotebooks() {
-        List<Notebook> notebooks = List.of(notebook);
-        when(cacheConfig.getAllNotebooks()).thenReturn(null);
-        when(notebookRepository.findAll()).thenReturn(notebooks);
+    void getAllNotebooksReturnsFirstPageWithKeysetQuery() {
+        when(notebookRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Limit.class)))
+            .thenReturn(List.of(notebook));
         when(notebookMapper.toDisplayNotebookDto(any(Notebook.class))).thenReturn(displayNotebookDto);
-        doNothing().when(cacheConfig).putAllNotebooks(anyList());
 
-        List<DisplayNotebookDto> result = notebookService.getAllNotebooks(null);
+        CursorPageDto<DisplayNotebookDto> result = notebookService.getAllNotebooks(null, null, null);
 
-        assertFalse(result.isEmpty());
-        assertEquals(1, result.size());
-        assertEquals(displayNotebookDto, result.get(0));
-        verify(notebookRepository, times(1)).findAll();
-        verify(cacheConfig, times(1)).putAllNotebooks(anyList());
+        assertEquals(List.of(displayNotebookDto), result.getItems());
+        assertNull(result.getNextCursor());
+        verify(cacheConfig, times(1)).putNotebooks(List.of(displayNotebookDto), 0L);
+        verify(notebookRepository, never()).findAll();
     }
 
     @Test
-    void getAllNotebooksReturnsAllNotebooksFromCache() {
-        List<DisplayNotebookDto> notebooks = List.of(displayNotebookDto);
-        when(cacheConfig.getAllNotebooks()).thenReturn(notebooks);
-
-        List<DisplayNotebookDto> result = notebookService.getAllNotebooks(null);
-
-        assertFalse(result.isEmpty());
-        assertEquals(1, result.size());
-        assertEquals(displayNotebookDto, result.get(0));
-        verify(notebookRepository, never()).findAll();
-        verify(cacheConfig, never()).putAllNotebooks(anyList());
+    void getAllNotebooksPagesAfterCursor() {
+        Notebook third = new Notebook();
+        third.setId(3L);
+        DisplayNotebookDto secondDto = new DisplayNotebookDto();
+        secondDto.setId(2L);
+        DisplayNotebookDto thirdDto = new DisplayNotebookDto();
+        thirdDto.setId(3L);
+        when(notebookRepository.findByIdGreaterThanOrderByIdAsc(1L, Limit.of(2))).thenReturn(List.of(notebook, third));
+        when(notebookMapper.toDisplayNotebookDto(notebook)).thenReturn(secondDto);
+        when(notebookMapper.toDisplayNotebookDto(third)).thenReturn(thirdDto);
+
+        CursorPageDto<DisplayNotebookDto> result =
+            notebookService.getAllNotebooks(null, KeysetCursor.encode(1L), 1);
+
+        assertEquals(List.of(secondDto), result.getItems());
+        assertEquals(2L, KeysetCursor.decode(result.getNextCursor()));
     }
 
     @Test
     void getAllNotebooksByTaskIdReturnsFilteredNotebooks() {
         List<Notebook> notebooks = List.of(notebook);
+        when(cacheConfig.getNotebooksByTask(eq(1L), any(), any()))
+            .thenAnswer(loadWithDependencies(Set.of("task:1", "notebook:1")));
         when(notebookRepository.findByTaskIdFilter(anyLong())).thenReturn(notebooks);
         when(notebookMapper.toDisplayNotebookDto(any(Notebook.class))).thenReturn(displayNotebookDto);
 
-        List<DisplayNotebookDto> result = notebookService.getAllNotebooks(1L);
+        List<DisplayNotebookDto> result = notebookService.getAllNotebooks(1L, null, null).getItems();
 
         assertFalse(result.isEmpty());
         assertEquals(1, result.size());
         assertEquals(displayNotebookDto, result.get(0));
         verify(notebookRepository, times(1)).findByTaskIdFilter(anyLong());
-        verify(cacheConfig, never()).putAllNotebooks(anyList());
     }
 
     @Test
-    void getAllNotebooksSearchReturnsFilteredNotebooks() {
-        List<Notebook> notebooks = List.of(notebook);
-        when(notebookRepository.searchByTitle(anyString())).thenReturn(notebooks);
-        when(notebookMapper.toDisplayNotebookDto(any(Notebook.class))).thenReturn(displayNotebookDto);
+    void getAllNotebooksByTaskIdReturnsNotebooksFromCache() {
+        when(cacheConfig.getNotebooksByTask(eq(1L), any(), any())).thenReturn(List.of(displayNotebookDto));
 
-        List<DisplayNotebookDto> result = notebookService.getAllNotebooksSearch("Test");
+        List<DisplayNotebookDto> result = notebookService.getAllNotebooks(1L, null, null).getItems();
 
-        assertFalse(result.isEmpty());
-        assertEquals(1, result.size());
-        assertEquals(displayNotebookDto, result.get(0));
-        verify(notebookRepository, times(1)).searchByTitle(anyString());
-        verify(notebookRepository, never()).findAll();
+        assertEquals(List.of(displayNotebookDto), result);
+        verify(notebookRepository, never()).findByTaskIdFilter(anyLong());
+    }
+
+    @Test
+    void getAllNotebooksSearchReturnsRankedNotebooks() {
+        DisplayNotebookDto secondDto = new DisplayNotebookDto();
+        secondDto.setId(2L);
+        when(notebookRepository.searchByText("test notes", Float.MAX_VALUE, 0L, 2))
+            .thenReturn(List.of(searchHit(2L, 0.9f), searchHit(1L, 0.5f)));
+        when(cacheConfig.getNotebook(2L)).thenReturn(secondDto);
+
+        CursorPageDto<DisplayNotebookDto> result = notebookService.getAllNotebooksSearch("test notes", null, 1);
+
+        assertEquals(List.of(secondDto), result.getItems());
+        assertEquals(new KeysetCursor.RankedPosition(0.9f, 2L), KeysetCursor.decodeRanked(result.getNextCursor()));
+        verify(notebookRepository, never()).findByIdGreaterThanOrderByIdAsc(anyLong(), any(Limit.class));
+    }
+
+    @Test
+    void getAllNotebooksSearchUsesSearchIndexWhenReady() {
+        when(searchIndexService.isNotebookIndexReady()).thenReturn(true);
+        when(searchIndexService.searchNotebooks("test", 0L, 51)).thenReturn(List.of(1L));
+        when(cacheConfig.getNotebook(1L)).thenReturn(displayNotebookDto);
+
+        CursorPageDto<DisplayNotebookDto> result = notebookService.getAllNotebooksSearch("test", null, null);
+
+        assertEquals(List.of(displayNotebookDto), result.getItems());
+        assertNull(result.getNextCursor());
+        verify(notebookRepository, never()).searchByText(anyString(), anyFloat(), anyLong(), anyInt());
+    }
+
+    @Test
+    void getAllNotebooksSearchContinuesRankedCursorInDatabaseWhenIndexIsReady() {
+        when(searchIndexService.isNotebookIndexReady()).thenReturn(true);
+        when(notebookRepository.searchByText("test", 0.9f, 2L, 51)).thenReturn(List.of(searchHit(1L, 0.5f)));
+        when(cacheConfig.getNotebook(1L)).thenReturn(displayNotebookDto);
+
+        CursorPageDto<DisplayNotebookDto> result = notebookService.getAllNotebooksSearch(
+            "test", KeysetCursor.encode(new KeysetCursor.RankedPosition(0.9f, 2L)), null);
+
+        assertEquals(List.of(displayNotebookDto), result.getItems());
+        verify(searchIndexService, never()).searchNotebooks(anyString(), anyLong(), anyInt());
+    }
+
+    @Test
+    void getAllNotebooksSearchRejectsIndexCursorWhenIndexIsUnavailable() {
+        when(searchIndexService.isNotebookIndexReady()).thenReturn(false);
+
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+            () -> notebookService.getAllNotebooksSearch("test", KeysetCursor.encode(5L), null));
+
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+        verify(notebookRepository, never()).searchByText(anyString(), anyFloat(), anyLong(), anyInt());
+    }
+
+    private static NotebookSearchHit searchHit(Long id, Float rank) {
+        return new NotebookSearchHit() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Float getRank() {
+                return rank;
+            }
+        };
     }
 
     @Test
     void getAllNotebooksSearchReturnsAllNotebooks() {
         List<Notebook> notebooks = List.of(notebook);
-        when(notebookRepository.findAll()).thenReturn(notebooks);
+        when(notebookRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Limit.class))).thenReturn(notebooks);
         when(notebookMapper.toDisplayNotebookDto(any(Notebook.class))).thenReturn(displayNotebookDto);
 
-        List<DisplayNotebookDto> result = notebookService.getAllNotebooksSearch(null);
+        List<DisplayNotebookDto> result = notebookService.getAllNotebooksSearch(null, null, null).getItems();
 
         assertFalse(result.isEmpty());
         assertEquals(1, result.size());
         assertEquals(displayNotebookDto, result.get(0));
-        verify(notebookRepository, times(1)).findAll();
-        verify(notebookRepository, never()).searchByTitle(anyString());
+        verify(notebookRepository, times(1)).findByIdGreaterThanOrderByIdAsc(eq(0L), any(Limit.class));
+        verify(notebookRepository, never()).searchByText(anyString(), anyFloat(), anyLong(), anyInt());
     }
 
     @Test
     void getNotebookByIdExistingIdReturnsNotebook() {
+        when(cacheConfig.getNotebook(eq(1L), any())).thenAnswer(loadThrough());
         when(notebookRepository.findById(anyLong())).thenReturn(Optional.of(notebook));
         when(notebookMapper.toDisplayNotebookDto(any(Notebook.class))).thenReturn(displayNotebookDto);
 
@@ -187,8 +265,19 @@ class NotebookServiceTest {
         verify(notebookRepository, times(1)).findById(1L);
     }
 
+    @Test
+    void getNotebookByIdReturnsCachedNotebook() {
+        when(cacheConfig.getNotebook(eq(1L), any())).thenReturn(displayNotebookDto);
+
+        DisplayNotebookDto result = notebookService.getNotebookById(1L);
+
+        assertEquals(displayNotebookDto, result);
+        verify(notebookRepository, never()).findById(anyLong());
+    }
+
     @Test
     void getNotebookByIdNonExistingIdThrowsNotFound() {
+        when(cacheConfig.getNotebook(eq(1L), any())).thenAnswer(loadThrough());
         when(notebookRepository.findById(anyLong())).thenReturn(Optional.empty());
 
         ResponseStatusException exception = assertThrows(ResponseStatusException.class, () -> notebookService.getNotebookById(1L));
@@ -200,12 +289,10 @@ class NotebookServiceTest {
     @Test
     void createNotebookValidDtoReturnsCreatedNotebook() {
         when(taskRepository.findById(anyLong())).thenReturn(Optional.of(task));
-        when(tagRepository.findById(anyLong())).thenReturn(Optional.of(tag));
+        when(tagRepository.findAllById(Set.of(1L))).thenReturn(List.of(tag));
         when(notebookMapper.fromCreateNotebookDto(any(CreateNotebookDto.class))).thenReturn(notebook);
         when(notebookRepository.save(any(Notebook.class))).thenReturn(notebook);
         when(notebookMapper.toDisplayNotebookDto(any(Notebook.class))).thenReturn(displayNotebookDto);
-        doNothing().when(cacheConfig).removeAllNotebooks();
-        doNothing().when(cacheConfig).removeAllNotebooksFull();
 
         DisplayNotebookDto result = notebookService.createNotebook(createNotebookDto);
 
@@ -213,9 +300,11 @@ class NotebookServiceTest {
         assertEquals(displayNotebookDto, result);
         verify(notebookRepository, times(1)).save(any(Notebook.class));
         verify(taskRepository, times(1)).findById(anyLong());
-        verify(tagRepository, times(1)).findById(anyLong());
-        verify(cacheConfig, times(1)).removeAllNotebooks();
-        verify(cacheConfig, times(1)).removeAllNotebooksFull();
+        verify(tagRepository, never()).findById(anyLong());
+        verify(cacheConfig, times(1)).putNotebook(displayNotebookDto);
+        verify(cacheConfig, times(1)).removeNotebookDependents(List.of("notebooks"));
+        verify(cacheConfig, times(1)).removeTagFilterDependents("Test Tag");
+        verify(cacheConfig, never()).removeAllNotebooks();
     }
 
     @Test
@@ -236,6 +325,80 @@ class NotebookServiceTest {
         verify(notebookRepository, never()).save(any(Notebook.class));
     }
 
+    @Test
+    void createNotebooksResolvesReferencesOnceAndUpdatesCachesAfterCommit() {
+        CreateNotebookDto secondDto = new CreateNotebookDto();
+        secondDto.setTitle("Second");
+        secondDto.setContent("Content");
+        secondDto.setTaskId(1L);
+        secondDto.setTagIds(Set.of(1L));
+        Notebook second = new Notebook();
+        second.setId(2L);
+        DisplayNotebookDto secondDisplayDto = new DisplayNotebookDto();
+        secondDisplayDto.setId(2L);
+        secondDisplayDto.setTitle("Second");
+        secondDisplayDto.setContent("Content");
+        when(taskRepository.findAllById(Set.of(1L))).thenReturn(List.of(task));
+        when(tagRepository.findAllById(Set.of(1L))).thenReturn(List.of(tag));
+        when(notebookMapper.fromCreateNotebookDto(any(CreateNotebookDto.class))).thenReturn(notebook, second);
+        when(notebookRepository.saveAll(anyList())).thenReturn(List.of(notebook, second));
+        when(notebookMapper.toDisplayNotebookDto(any(Notebook.class))).thenReturn(displayNotebookDto, secondDisplayDto);
+
+        List<DisplayNotebookDto> result = notebookService.createNotebooks(List.of(createNotebookDto, secondDto));
+
+        assertEquals(List.of(displayNotebookDto, secondDisplayDto), result);
+        assertSame(task, second.getTask());
+        assertEquals(1, second.getTags().size());
+        verify(taskRepository, times(1)).findAllById(Set.of(1L));
+        verify(tagRepository, times(1)).findAllById(Set.of(1L));
+        verify(taskRepository, never()).findById(anyLong());
+        verify(searchIndexService, times(1)).indexNotebook(1L, "Test Notebook", "Test Content");
+        verify(searchIndexService, times(1)).indexNotebook(2L, "Second", "Content");
+        verify(cacheConfig, times(1)).removeNotebookDependents(List.of("notebooks", "task:1"));
+        verify(cacheConfig, times(1)).removeTagFilterDependents("Test Tag");
+        verify(cacheConfig, never()).putNotebook(any(DisplayNotebookDto.class));
+    }
+
+    @Test
+    void createNotebooksInvalidItemsReportsEveryError() {
+        CreateNotebookDto invalid = new CreateNotebookDto();
+        createNotebookDto.setContent("");
+
+        ValidationException exception = assertThrows(ValidationException.class,
+            () -> notebookService.createNotebooks(List.of(createNotebookDto, invalid)));
+
+        assertEquals(List.of(
+            "Notebook 0: Content cannot be empty",
+            "Notebook 1: Title cannot be empty",
+            "Notebook 1: Content cannot be empty"), exception.getErrors());
+        verify(notebookRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void createNotebooksNonExistingTagsThrowsNotFound() {
+        createNotebookDto.setTaskId(null);
+        createNotebookDto.setTagIds(Set.of(1L, 998L, 999L));
+        when(tagRepository.findAllById(Set.of(1L, 998L, 999L))).thenReturn(List.of(tag));
+
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+            () -> notebookService.createNotebooks(List.of(createNotebookDto)));
+
+        assertEquals(HttpStatus.NOT_FOUND, exception.getStatusCode());
+        assertEquals("Tags not found: [998, 999]", exception.getReason());
+        verify(notebookRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void createNotebooksTooManyItemsThrowsBadRequest() {
+        List<CreateNotebookDto> dtos = Collections.nCopies(BulkRequests.MAX_SIZE + 1, createNotebookDto);
+
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+            () -> notebookService.createNotebooks(dtos));
+
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+        verify(notebookRepository, never()).saveAll(anyList());
+    }
+
     @Test
     void createNotebookNonExistingTaskThrowsNotFound() {
         createNotebookDto.setTaskId(999L);
@@ -250,31 +413,38 @@ class NotebookServiceTest {
 
     @Test
     void createNotebookNonExistingTagThrowsNotFound() {
-        createNotebookDto.setTagIds(Set.of(999L));
+        createNotebookDto.setTagIds(Set.of(1L, 998L, 999L));
+        when(tagRepository.findAllById(Set.of(1L, 998L, 999L))).thenReturn(List.of(tag));
 
         ResponseStatusException exception = assertThrows(ResponseStatusException.class, () -> notebookService.createNotebook(createNotebookDto));
 
         assertEquals(HttpStatus.NOT_FOUND, exception.getStatusCode());
+        assertEquals("Tags not found: [998, 999]", exception.getReason());
         verify(notebookRepository, never()).save(any(Notebook.class));
     }
 
     @Test
     void updateNotebookExistingIdReturnsUpdatedNotebook() {
+        Tag addedTag = new Tag();
+        addedTag.setId(2L);
+        addedTag.setName("Added Tag");
+        createNotebookDto.setTagIds(Set.of(1L, 2L));
         when(notebookRepository.findById(anyLong())).thenReturn(Optional.of(notebook));
-        when(tagRepository.findById(anyLong())).thenReturn(Optional.of(tag));
+        when(tagRepository.findAllById(Set.of(2L))).thenReturn(List.of(addedTag));
         when(notebookRepository.save(any(Notebook.class))).thenReturn(notebook);
         when(notebookMapper.toDisplayNotebookDto(any(Notebook.class))).thenReturn(displayNotebookDto);
-        doNothing().when(cacheConfig).removeAllNotebooks();
-        doNothing().when(cacheConfig).removeAllNotebooksFull();
 
         DisplayNotebookDto result = notebookService.updateNotebook(1L, createNotebookDto);
 
         assertNotNull(result);
         assertEquals(displayNotebookDto, result);
+        assertEquals(Set.of(tag, addedTag), notebook.getTags());
         verify(notebookRepository, times(1)).save(any(Notebook.class));
-        verify(tagRepository, times(1)).findById(anyLong());
-        verify(cacheConfig, times(1)).removeAllNotebooks();
-        verify(cacheConfig, times(1)).removeAllNotebooksFull();
+        verify(cacheConfig, times(1)).removeTagFilterDependents("Added Tag");
+        verify(cacheConfig, times(1)).putNotebook(displayNotebookDto);
+        verify(cacheConfig, times(1)).removeNotebookDependents(List.of("notebook:1"));
+        verify(cacheConfig, times(1)).removeTagFilterDependents("Test Tag");
+        verify(cacheConfig, never()).removeAllNotebooks();
     }
 
     @Test
@@ -309,7 +479,7 @@ class NotebookServiceTest {
     void updateNotebookNonExistingTagThrowsNotFound() {
         createNotebookDto.setTagIds(Set.of(999L));
         when(notebookRepository.findById(anyLong())).thenReturn(Optional.of(notebook));
-        when(tagRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(tagRepository.findAllById(Set.of(999L))).thenReturn(List.of());
 
         ResponseStatusException exception = assertThrows(ResponseStatusException.class, () -> notebookService.updateNotebook(1L, createNotebookDto));
 
@@ -321,14 +491,13 @@ class NotebookServiceTest {
     void deleteNotebookExistingIdDeletesNotebook() {
         when(notebookRepository.existsById(anyLong())).thenReturn(true);
         doNothing().when(notebookRepository).deleteById(anyLong());
-        doNothing().when(cacheConfig).removeAllNotebooks();
-        doNothing().when(cacheConfig).removeAllNotebooksFull();
 
         notebookService.deleteNotebook(1L);
 
         verify(notebookRepository, times(1)).deleteById(1L);
-        verify(cacheConfig, times(1)).removeAllNotebooks();
-        verify(cacheConfig, times(1)).removeAllNotebooksFull();
+        verify(cacheConfig, times(1)).removeNotebooks(List.of(1L));
+        verify(cacheConfig, times(1)).removeNotebookDependents(List.of("notebook:1"));
+        verify(cacheConfig, never()).removeAllNotebooks();
     }
 
     @Test
@@ -344,12 +513,12 @@ class NotebookServiceTest {
     @Test
     void invalidateNotebookCacheRemovesAllCache() {
         doNothing().when(cacheConfig).removeAllNotebooks();
-        doNothing().when(cacheConfig).removeAllNotebooksFull();
+        doNothing().when(cacheConfig).removeAllNotebookViews();
 
         notebookService.invalidateNotebookCache();
 
         verify(cacheConfig, times(1)).removeAllNotebooks();
-        verify(cacheConfig, times(1)).removeAllNotebooksFull();
+        verify(cacheConfig, times(1)).removeAllNotebookViews();
     }
 
     @Test
@@ -357,6 +526,8 @@ class NotebookServiceTest {
         List<Object[]> results = new ArrayList<>();
         Object[] row = new Object[]{1L, "Test Notebook", "Test Content", 1L, "Test Tag", null, null};
         results.add(row);
+        when(cacheConfig.getNotebooksFull(eq("tag:test tag"), any(), any()))
+            .thenAnswer(loadWithDependencies(Set.of("tagFilter:test tag", "notebook:1", "tag:1")));
         when(notebookRepository.findAllNotebooksFullWithTagFilter(anyString())).thenReturn(results);
 
         List<DisplayNotebookFullDto> result = notebookService.getAllNotebooksFull("Test Tag");
@@ -370,11 +541,24 @@ class NotebookServiceTest {
         verify(notebookRepository, times(1)).findAllNotebooksFullWithTagFilter(anyString());
     }
 
+    @Test
+    void getAllNotebooksFullReturnsNotebooksFromCache() {
+        DisplayNotebookFullDto notebookFull = new DisplayNotebookFullDto();
+        when(cacheConfig.getNotebooksFull(eq("task:1"), any(), any())).thenReturn(List.of(notebookFull));
+
+        List<DisplayNotebookFullDto> result = notebookService.getAllNotebooksFull(1L);
+
+        assertEquals(List.of(notebookFull), result);
+        verify(notebookRepository, never()).findAllNotebooksFullWithTagAndTaskFilter(anyLong());
+    }
+
     @Test
     void getAllNotebooksFullByTaskIdReturnsFilteredNotebooks() {
         List<Object[]> results = new ArrayList<>();
         Object[] row = new Object[]{1L, "Test Notebook", "Test Content", 1L, "Test Tag", 1L, "Test Task"};
         results.add(row);
+        when(cacheConfig.getNotebooksFull(eq("task:1"), any(), any()))
+            .thenAnswer(loadWithDependencies(Set.of("task:1", "notebook:1", "tag:1")));
         when(notebookRepository.findAllNotebooksFullWithTagAndTaskFilter(anyLong())).thenReturn(results);
 
         List<DisplayNotebookFullDto> result = notebookService.getAllNotebooksFull(1L);
@@ -389,4 +573,23 @@ class NotebookServiceTest {
         assertEquals("Test Task", result.get(0).getTask().getTitle());
         verify(notebookRepository, times(1)).findAllNotebooksFullWithTagAndTaskFilter(anyLong());
     }
+
+    private static <K, V> Answer<V> loadThrough() {
+        return invocation -> {
+            Object[] arguments = invocation.getArguments();
+            Function<K, V> loader = invocation.getArgument(arguments.length - 1);
+            K key = arguments.length > 1 ? invocation.getArgument(0) : null;
+            return loader.apply(key);
+        };
+    }
+
+    private static <K, V> Answer<V> loadWithDependencies(Set<String> expectedDependencies) {
+        return invocation -> {
+            Function<K, V> loader = invocation.getArgument(1);
+            Function<V, Set<String>> dependencies = invocation.getArgument(2);
+            V loaded = loader.apply(invocation.getArgument(0));
+            assertEquals(expectedDependencies, dependencies.apply(loaded));
+            return loaded;
+        };
+    }
 }
@@ -0,0 +1,117 @@
+package com.geml.taska.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.geml.taska.dto.CreateTagDto;
+import com.geml.taska.mapper.TagMapper;
+import com.geml.taska.models.Tag;
+import com.geml.taska.models.User;
+import com.geml.taska.repository.TagRepository;
+import com.geml.taska.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validator;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.server.ResponseStatusException;
+
+@ExtendWith(MockitoExtension.class)
+class TagImportServiceTest {
+
+    @Mock
+    private TagRepository tagRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private TagMapper tagMapper;
+
+    @Mock
+    private Validator validator;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private TagImportService tagImportService;
+
+    @BeforeEach
+    void setUp() {
+        tagImportService = new TagImportService(tagRepository, userRepository, tagMapper, new ObjectMapper(),
+            validator, entityManager, transactionManager);
+    }
+
+    private static ByteArrayInputStream body(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void importTagsReadsNdjsonAndLooksUpEachUserOnce() throws Exception {
+        User user = new User();
+        user.setId(1L);
+        when(validator.validate(any(CreateTagDto.class))).thenReturn(Set.of());
+        when(userRepository.findAllById(Set.of(1L))).thenReturn(List.of(user));
+        when(userRepository.getReferenceById(1L)).thenReturn(user);
+        when(tagMapper.fromCreateTagDto(any(CreateTagDto.class))).thenAnswer(invocation -> new Tag());
+
+        long created = tagImportService.importTags(body("""
+            {"name": "work", "userId": 1}
+            {"name": "home", "userId": 1}
+            """));
+
+        assertEquals(2, created);
+        verify(userRepository, times(1)).findAllById(Set.of(1L));
+        verify(tagRepository, times(1)).saveAll(anyList());
+        verify(entityManager).clear();
+    }
+
+    @Test
+    void importTagsReadsJsonArray() throws Exception {
+        User user = new User();
+        user.setId(2L);
+        when(validator.validate(any(CreateTagDto.class))).thenReturn(Set.of());
+        when(userRepository.findAllById(Set.of(2L))).thenReturn(List.of(user));
+        when(userRepository.getReferenceById(2L)).thenReturn(user);
+        when(tagMapper.fromCreateTagDto(any(CreateTagDto.class))).thenAnswer(invocation -> new Tag());
+
+        long created = tagImportService.importTags(body("[{\"name\": \"work\", \"userId\": 2}]"));
+
+        assertEquals(1, created);
+    }
+
+    @Test
+    void importTagsMalformedBodyThrowsBadRequest() {
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+            () -> tagImportService.importTags(body("[{\"name\": ")));
+
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+        verify(tagRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void importTagsEmptyBodyThrowsBadRequest() {
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+            () -> tagImportService.importTags(body("[]")));
+
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+    }
+}
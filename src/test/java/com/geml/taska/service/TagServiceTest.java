@@ -7,7 +7,9 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -23,16 +25,17 @@ import com.geml.taska.repository.NotebookRepository;
 import com.geml.taska.repository.TagRepository;
 import com.geml.taska.repository.UserRepository;
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.server.ResponseStatusException;
 
@@ -85,15 +88,15 @@ class TagServiceTest {
     @Test
     void getAllTagsReturnsAllTags() {
         List<Tag> tags = List.of(tag);
-        when(tagRepository.findAll()).thenReturn(tags);
+        when(tagRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Limit.class))).thenReturn(tags);
         when(tagMapper.toDisplayTagDto(any(Tag.class))).thenReturn(displayTagDto);
 
-        List<DisplayTagDto> result = tagService.getAllTags();
+        List<DisplayTagDto> result = tagService.getAllTags(null, null).getItems();
 
         assertFalse(result.isEmpty());
         assertEquals(1, result.size());
         assertEquals(displayTagDto, result.get(0));
-        verify(tagRepository, times(1)).findAll();
+        verify(tagRepository, times(1)).findByIdGreaterThanOrderByIdAsc(eq(0L), any(Limit.class));
     }
 
     @Test
@@ -124,15 +127,14 @@ class TagServiceTest {
         when(tagMapper.fromCreateTagDto(any(CreateTagDto.class))).thenReturn(tag);
         when(tagRepository.save(any(Tag.class))).thenReturn(tag);
         when(tagMapper.toDisplayTagDto(any(Tag.class))).thenReturn(displayTagDto);
-        doNothing().when(notebookService).invalidateNotebookCache();
 
         DisplayTagDto result = tagService.createTag(createTagDto);
 
         assertNotNull(result);
         assertEquals(displayTagDto, result);
         verify(tagRepository, times(1)).save(any(Tag.class));
-        verify(userRepository, times(1)).findById(anyLong());
-        verify(notebookService, times(1)).invalidateNotebookCache();
+        verify(userRepository, never()).findById(anyLong());
+        verify(notebookService, never()).invalidateNotebookCache();
     }
 
     @Test
@@ -149,11 +151,10 @@ class TagServiceTest {
     void createTagsBulkValidDtosReturnsCreatedTags() {
         List<CreateTagDto> createTagDtos = List.of(createTagDto);
         List<Tag> tags = List.of(tag);
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        when(userRepository.findAllById(Set.of(1L))).thenReturn(List.of(user));
         when(tagMapper.fromCreateTagDto(any(CreateTagDto.class))).thenReturn(tag);
         when(tagRepository.saveAll(anyList())).thenReturn(tags);
         when(tagMapper.toDisplayTagDto(any(Tag.class))).thenReturn(displayTagDto);
-        doNothing().when(notebookService).invalidateNotebookCache();
 
         List<DisplayTagDto> result = tagService.createTags(createTagDtos);
 
@@ -161,8 +162,8 @@ class TagServiceTest {
         assertEquals(1, result.size());
         assertEquals(displayTagDto, result.get(0));
         verify(tagRepository, times(1)).saveAll(anyList());
-        verify(userRepository, times(1)).findById(anyLong());
-        verify(notebookService, times(1)).invalidateNotebookCache();
+        verify(userRepository, never()).findById(anyLong());
+        verify(notebookService, never()).invalidateNotebookCache();
     }
 
     @Test
@@ -179,14 +180,14 @@ class TagServiceTest {
         when(tagRepository.findById(anyLong())).thenReturn(Optional.of(tag));
         when(tagRepository.save(any(Tag.class))).thenReturn(tag);
         when(tagMapper.toDisplayTagDto(any(Tag.class))).thenReturn(displayTagDto);
-        doNothing().when(notebookService).invalidateNotebookCache();
+        doNothing().when(notebookService).evictTagDependents(anyLong(), anyList());
 
         DisplayTagDto result = tagService.updateTag(1L, createTagDto);
 
         assertNotNull(result);
         assertEquals(displayTagDto, result);
         verify(tagRepository, times(1)).save(any(Tag.class));
-        verify(notebookService, times(1)).invalidateNotebookCache();
+        verify(notebookService, times(1)).evictTagDependents(eq(1L), anyList());
     }
 
     @Test
@@ -201,24 +202,17 @@ class TagServiceTest {
 
     @Test
     void deleteTagExistingIdDeletesTag() {
-        Notebook notebook = new Notebook();
-        notebook.setId(1L);
-        Set<Tag> tags = new HashSet<>();
-        tags.add(tag);
-        notebook.setTags(tags);
-        Set<Notebook> notebooks = new HashSet<>();
-        notebooks.add(notebook);
         when(tagRepository.findById(anyLong())).thenReturn(Optional.of(tag));
-        when(notebookRepository.findByTagsId(anyLong())).thenReturn(notebooks);
-        when(notebookRepository.save(any(Notebook.class))).thenReturn(notebook);
-        doNothing().when(tagRepository).deleteById(anyLong());
-        doNothing().when(notebookService).invalidateNotebookCache();
+        when(notebookRepository.findIdsByTagId(1L)).thenReturn(List.of(1L, 2L));
 
         tagService.deleteTag(1L);
 
-        verify(tagRepository, times(1)).deleteById(anyLong());
-        verify(notebookRepository, times(1)).save(any(Notebook.class));
-        verify(notebookService, times(1)).invalidateNotebookCache();
+        InOrder inOrder = inOrder(tagRepository);
+        inOrder.verify(tagRepository).bulkDeleteNotebookLinksByTagId(1L);
+        inOrder.verify(tagRepository).bulkDeleteById(1L);
+        verify(notebookRepository, never()).save(any(Notebook.class));
+        verify(notebookService, times(1)).evictNotebooks(List.of(1L, 2L));
+        verify(notebookService, times(1)).evictTagDependents(1L, List.of("Test Tag"));
     }
 
     @Test
@@ -228,20 +222,18 @@ class TagServiceTest {
         ResponseStatusException exception = assertThrows(ResponseStatusException.class, () -> tagService.deleteTag(1L));
 
         assertEquals(HttpStatus.NOT_FOUND, exception.getStatusCode());
-        verify(tagRepository, never()).deleteById(anyLong());
+        verify(tagRepository, never()).bulkDeleteById(anyLong());
     }
     
     @Test
     void deleteTagExistingIdWithNoNotebooksDeletesTag() {
         when(tagRepository.findById(anyLong())).thenReturn(Optional.of(tag));
-        when(notebookRepository.findByTagsId(anyLong())).thenReturn(new HashSet<>());
-        doNothing().when(tagRepository).deleteById(anyLong());
-        doNothing().when(notebookService).invalidateNotebookCache();
+        when(notebookRepository.findIdsByTagId(1L)).thenReturn(List.of());
 
         tagService.deleteTag(1L);
 
-        verify(tagRepository, times(1)).deleteById(anyLong());
-        verify(notebookRepository, never()).save(any(Notebook.class));
-        verify(notebookService, times(1)).invalidateNotebookCache();
+        verify(tagRepository, times(1)).bulkDeleteById(1L);
+        verify(notebookService, times(1)).evictTagDependents(1L, List.of("Test Tag"));
+        verify(notebookService, times(1)).evictNotebooks(List.of());
     }
 }
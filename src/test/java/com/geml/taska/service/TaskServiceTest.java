@@ -5,8 +5,11 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -16,20 +19,21 @@ import com.geml.taska.dto.CreateTaskDto;
 import com.geml.taska.dto.DisplayTaskDto;
 import com.geml.taska.mapper.TaskMapper;
 import com.geml.taska.models.Board;
-import com.geml.taska.models.Notebook;
 import com.geml.taska.models.Task;
 import com.geml.taska.repository.BoardRepository;
 import com.geml.taska.repository.NotebookRepository;
 import com.geml.taska.repository.TaskRepository;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.server.ResponseStatusException;
 
@@ -85,15 +89,15 @@ class TaskServiceTest {
     @Test
     void getAllTasksReturnsAllTasks() {
         List<Task> tasks = List.of(task);
-        when(taskRepository.findAll()).thenReturn(tasks);
+        when(taskRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Limit.class))).thenReturn(tasks);
         when(taskMapper.toDisplayTaskDto(any(Task.class))).thenReturn(displayTaskDto);
 
-        List<DisplayTaskDto> result = taskService.getAllTasks();
+        List<DisplayTaskDto> result = taskService.getAllTasks(null, null).getItems();
 
         assertFalse(result.isEmpty());
         assertEquals(1, result.size());
         assertEquals(displayTaskDto, result.get(0));
-        verify(taskRepository, times(1)).findAll();
+        verify(taskRepository, times(1)).findByIdGreaterThanOrderByIdAsc(eq(0L), any(Limit.class));
     }
 
     @Test
@@ -124,7 +128,6 @@ class TaskServiceTest {
         when(taskMapper.fromCreateTaskItemDto(any(CreateTaskDto.class))).thenReturn(task);
         when(taskRepository.save(any(Task.class))).thenReturn(task);
         when(taskMapper.toDisplayTaskDto(any(Task.class))).thenReturn(displayTaskDto);
-        doNothing().when(notebookService).invalidateNotebookCache();
 
         DisplayTaskDto result = taskService.createTask(createTaskDto);
 
@@ -132,7 +135,7 @@ class TaskServiceTest {
         assertEquals(displayTaskDto, result);
         verify(taskRepository, times(1)).save(any(Task.class));
         verify(boardRepository, times(1)).findById(anyLong());
-        verify(notebookService, times(1)).invalidateNotebookCache();
+        verify(notebookService, never()).invalidateNotebookCache();
     }
 
     @Test
@@ -150,14 +153,14 @@ class TaskServiceTest {
         when(taskRepository.findById(anyLong())).thenReturn(Optional.of(task));
         when(taskRepository.save(any(Task.class))).thenReturn(task);
         when(taskMapper.toDisplayTaskDto(any(Task.class))).thenReturn(displayTaskDto);
-        doNothing().when(notebookService).invalidateNotebookCache();
+        doNothing().when(notebookService).evictTaskDependents(1L);
 
         DisplayTaskDto result = taskService.updateTask(1L, createTaskDto);
 
         assertNotNull(result);
         assertEquals(displayTaskDto, result);
         verify(taskRepository, times(1)).save(any(Task.class));
-        verify(notebookService, times(1)).invalidateNotebookCache();
+        verify(notebookService, times(1)).evictTaskDependents(1L);
     }
 
     @Test
@@ -171,45 +174,55 @@ class TaskServiceTest {
     }
 
     @Test
-    void deleteTaskExistingIdDeletesTask() {
-        List<Notebook> notebooks = new ArrayList<>();
-        Notebook notebook = new Notebook();
-        notebook.setId(1L);
-        notebooks.add(notebook);
-        when(taskRepository.findById(anyLong())).thenReturn(Optional.of(task));
-        when(notebookRepository.findByTaskId(anyLong())).thenReturn(notebooks);
-        doNothing().when(notebookService).deleteNotebook(anyLong());
-        doNothing().when(taskRepository).delete(any(Task.class));
-        doNothing().when(notebookService).invalidateNotebookCache();
+    void createTasksResolvesBoardsWithOneQuery() {
+        CreateTaskDto second = new CreateTaskDto("Second Task", false, 1L);
+        when(boardRepository.findAllById(Set.of(1L))).thenReturn(List.of(board));
+        when(taskMapper.fromCreateTaskItemDto(any(CreateTaskDto.class))).thenReturn(new Task(), new Task());
+        when(taskRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(taskMapper.toDisplayTaskDto(any(Task.class))).thenReturn(displayTaskDto);
 
-        taskService.deleteTask(1L);
+        List<DisplayTaskDto> result = taskService.createTasks(List.of(createTaskDto, second));
 
-        verify(taskRepository, times(1)).delete(any(Task.class));
-        verify(notebookService, times(1)).deleteNotebook(anyLong());
-        verify(notebookService, times(1)).invalidateNotebookCache();
+        assertEquals(2, result.size());
+        verify(boardRepository, never()).findById(anyLong());
     }
 
     @Test
-    void deleteTaskNonExistingIdThrowsNotFound() {
-        when(taskRepository.findById(anyLong())).thenReturn(Optional.empty());
+    void createTasksReportsAllMissingBoards() {
+        CreateTaskDto second = new CreateTaskDto("Second Task", false, 8L);
+        createTaskDto.setBoardId(9L);
+        when(boardRepository.findAllById(Set.of(8L, 9L))).thenReturn(List.of());
 
-        ResponseStatusException exception = assertThrows(ResponseStatusException.class, () -> taskService.deleteTask(1L));
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+            () -> taskService.createTasks(List.of(createTaskDto, second)));
 
         assertEquals(HttpStatus.NOT_FOUND, exception.getStatusCode());
-        verify(taskRepository, never()).delete(any(Task.class));
+        assertEquals("Boards not found: [8, 9]", exception.getReason());
+        verify(taskRepository, never()).saveAll(anyList());
     }
-    
+
     @Test
-    void deleteTaskExistingIdWithNoNotebooksDeletesTask() {
-        when(taskRepository.findById(anyLong())).thenReturn(Optional.of(task));
-        when(notebookRepository.findByTaskId(anyLong())).thenReturn(new ArrayList<>());
-        doNothing().when(taskRepository).delete(any(Task.class));
-        doNothing().when(notebookService).invalidateNotebookCache();
+    void deleteTaskExistingIdDeletesTaskInBulk() {
+        when(taskRepository.existsById(1L)).thenReturn(true);
+        when(notebookRepository.findIdsByTaskId(1L)).thenReturn(List.of(2L, 3L));
 
         taskService.deleteTask(1L);
 
-        verify(taskRepository, times(1)).delete(any(Task.class));
+        InOrder inOrder = inOrder(notebookRepository, taskRepository);
+        inOrder.verify(notebookRepository).bulkDeleteTagLinksByTaskId(1L);
+        inOrder.verify(notebookRepository).bulkDeleteByTaskId(1L);
+        inOrder.verify(taskRepository).bulkDeleteById(1L);
+        verify(notebookService, times(1)).evictDeletedTasks(List.of(1L), List.of(2L, 3L));
         verify(notebookService, never()).deleteNotebook(anyLong());
-        verify(notebookService, times(1)).invalidateNotebookCache();
+    }
+
+    @Test
+    void deleteTaskNonExistingIdThrowsNotFound() {
+        when(taskRepository.existsById(anyLong())).thenReturn(false);
+
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class, () -> taskService.deleteTask(1L));
+
+        assertEquals(HttpStatus.NOT_FOUND, exception.getStatusCode());
+        verify(taskRepository, never()).bulkDeleteById(anyLong());
     }
 }
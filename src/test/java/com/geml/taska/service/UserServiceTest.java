@@ -3,34 +3,38 @@ package com.geml.taska.service;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
-import static org.mockito.Mockito.doNothing;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.geml.taska.dto.CreateUserDto;
+import com.geml.taska.dto.CursorPageDto;
 import com.geml.taska.dto.DisplayUserDto;
 import com.geml.taska.exception.CustomNotFoundException;
 import com.geml.taska.mapper.UserMapper;
-import com.geml.taska.models.Board;
-import com.geml.taska.models.Tag;
 import com.geml.taska.models.User;
 import com.geml.taska.repository.BoardRepository;
+import com.geml.taska.repository.NotebookRepository;
 import com.geml.taska.repository.TagRepository;
+import com.geml.taska.repository.TaskRepository;
 import com.geml.taska.repository.UserRepository;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.server.ResponseStatusException;
 
@@ -50,10 +54,16 @@ class UserServiceTest {
     private TagRepository tagRepository;
 
     @Mock
-    private BoardService boardService;
+    private TaskRepository taskRepository;
 
     @Mock
-    private TagService tagService;
+    private NotebookRepository notebookRepository;
+
+    @Mock
+    private NotebookService notebookService;
+
+    @Mock
+    private SearchIndexService searchIndexService;
 
     @InjectMocks
     private UserService userService;
@@ -84,15 +94,38 @@ class UserServiceTest {
     @Test
     void getAllUsersReturnsAllUsers() {
         List<User> users = List.of(user);
-        when(userRepository.findAll()).thenReturn(users);
+        when(userRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Limit.class))).thenReturn(users);
         when(userMapper.toDisplayUserDto(any(User.class))).thenReturn(displayUserDto);
 
-        List<DisplayUserDto> result = userService.getAllUsers();
+        CursorPageDto<DisplayUserDto> result = userService.getAllUsers(null, null);
 
-        assertFalse(result.isEmpty());
-        assertEquals(1, result.size());
-        assertEquals(displayUserDto, result.get(0));
-        verify(userRepository, times(1)).findAll();
+        assertFalse(result.getItems().isEmpty());
+        assertEquals(1, result.getItems().size());
+        assertEquals(displayUserDto, result.getItems().get(0));
+        assertNull(result.getNextCursor());
+        verify(userRepository, times(1)).findByIdGreaterThanOrderByIdAsc(eq(0L), any(Limit.class));
+    }
+
+    @Test
+    void getAllUsersReturnsCursorWhenMoreUsersFollow() {
+        DisplayUserDto secondDto = new DisplayUserDto();
+        secondDto.setId(2L);
+        when(userRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Limit.class)))
+            .thenReturn(List.of(user, new User()));
+        when(userMapper.toDisplayUserDto(any(User.class))).thenReturn(displayUserDto, secondDto);
+
+        CursorPageDto<DisplayUserDto> result = userService.getAllUsers(null, 1);
+
+        assertEquals(List.of(displayUserDto), result.getItems());
+        assertEquals(1L, KeysetCursor.decode(result.getNextCursor()));
+    }
+
+    @Test
+    void getAllUsersInvalidCursorThrowsBadRequest() {
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+            () -> userService.getAllUsers("not a cursor", null));
+
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
     }
 
     @Test
@@ -154,50 +187,34 @@ class UserServiceTest {
     }
 
     @Test
-    void deleteUserExistingIdDeletesUser() {
-        List<Board> boards = new ArrayList<>();
-        Board board = new Board();
-        board.setId(1L);
-        boards.add(board);
-        List<Tag> tags = new ArrayList<>();
-        Tag tag = new Tag();
-        tag.setId(1L);
-        tags.add(tag);
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
-        when(boardRepository.findByUserId(anyLong())).thenReturn(boards);
-        when(tagRepository.findByUserId(anyLong())).thenReturn(tags);
-        doNothing().when(boardService).deleteBoard(anyLong());
-        doNothing().when(tagService).deleteTag(anyLong());
-        doNothing().when(userRepository).delete(any(User.class));
+    void deleteUserExistingIdDeletesEverythingInBulk() {
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(boardRepository.findIdsByUserId(1L)).thenReturn(List.of(2L));
+        when(notebookRepository.findIdsByUserId(1L)).thenReturn(List.of(3L, 4L));
 
         userService.deleteUser(1L);
 
-        verify(userRepository, times(1)).delete(any(User.class));
-        verify(boardService, times(1)).deleteBoard(anyLong());
-        verify(tagService, times(1)).deleteTag(anyLong());
+        InOrder inOrder = inOrder(notebookRepository, tagRepository, taskRepository, boardRepository, userRepository);
+        inOrder.verify(notebookRepository).bulkDeleteTagLinksByUserId(1L);
+        inOrder.verify(tagRepository).bulkDeleteNotebookLinksByUserId(1L);
+        inOrder.verify(notebookRepository).bulkDeleteByUserId(1L);
+        inOrder.verify(taskRepository).bulkDeleteByUserId(1L);
+        inOrder.verify(boardRepository).bulkDeleteByUserId(1L);
+        inOrder.verify(tagRepository).bulkDeleteByUserId(1L);
+        inOrder.verify(userRepository).bulkDeleteById(1L);
+        verify(searchIndexService).removeNotebooks(List.of(3L, 4L));
+        verify(searchIndexService).removeBoards(List.of(2L));
+        verify(notebookService, times(1)).invalidateNotebookCache();
     }
 
     @Test
     void deleteUserNonExistingIdThrowsNotFound() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(userRepository.existsById(anyLong())).thenReturn(false);
 
         ResponseStatusException exception = assertThrows(ResponseStatusException.class, () -> userService.deleteUser(1L));
 
         assertEquals(HttpStatus.NOT_FOUND, exception.getStatusCode());
-        verify(userRepository, never()).delete(any(User.class));
-    }
-    
-    @Test
-    void deleteUserExistingIdWithNoBoardsAndTagsDeletesUser() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
-        when(boardRepository.findByUserId(anyLong())).thenReturn(new ArrayList<>());
-        when(tagRepository.findByUserId(anyLong())).thenReturn(new ArrayList<>());
-        doNothing().when(userRepository).delete(any(User.class));
-
-        userService.deleteUser(1L);
-
-        verify(userRepository, times(1)).delete(any(User.class));
-        verify(boardService, never()).deleteBoard(anyLong());
-        verify(tagService, never()).deleteTag(anyLong());
+        verify(userRepository, never()).bulkDeleteById(anyLong());
+        verify(notebookService, never()).invalidateNotebookCache();
     }
 }
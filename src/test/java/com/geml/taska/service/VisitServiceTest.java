@@ -0,0 +1,94 @@
+package com.geml.taska.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.geml.taska.models.VisitStat;
+import com.geml.taska.repository.VisitRepository;
+import com.geml.taska.repository.VisitStatRepository;
+import com.geml.taska.repository.VisitWindowRepository;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class VisitServiceTest {
+
+    private static final String USERS = "GET /api/users";
+
+    @Mock
+    private VisitStatRepository visitStatRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private VisitService visitService;
+
+    @BeforeEach
+    void setUp() {
+        visitService = new VisitService(new VisitRepository(10), new VisitWindowRepository(10),
+            visitStatRepository, new TransactionTemplate(transactionManager));
+    }
+
+    @Test
+    void flushSendsPendingDeltasOnce() {
+        visitService.recordVisit("GET", "/api/users", 1_000_000);
+        visitService.recordVisit("GET", "/api/users", 1_000_000);
+        visitService.recordVisit("POST", "/api/tasks", 1_000_000);
+
+        visitService.flush();
+        visitService.flush();
+
+        verify(visitStatRepository, times(1)).addVisits(USERS, 2L);
+        verify(visitStatRepository, times(1)).addVisits("POST /api/tasks", 1L);
+        verify(visitStatRepository, times(2)).addVisits(anyString(), anyLong());
+    }
+
+    @Test
+    void failedFlushRestoresDeltaForNextFlush() {
+        doThrow(new IllegalStateException("database unavailable"))
+            .doNothing()
+            .when(visitStatRepository).addVisits(USERS, 2L);
+        visitService.recordVisit("GET", "/api/users", 1_000_000);
+        visitService.recordVisit("GET", "/api/users", 1_000_000);
+
+        visitService.flush();
+
+        verify(transactionManager).rollback(any());
+        assertEquals(2, visitService.getVisitCount("GET", "/api/users"));
+
+        visitService.flush();
+
+        verify(visitStatRepository, times(2)).addVisits(USERS, 2L);
+        assertEquals(2, visitService.getVisitCount("GET", "/api/users"));
+    }
+
+    @Test
+    void getVisitCountAddsPersistedAndPendingWithoutDoubleCounting() {
+        when(visitStatRepository.findAll()).thenReturn(List.of(new VisitStat(USERS, 10)));
+        visitService.recordVisit("GET", "/api/users", 1_000_000);
+        visitService.recordVisit("GET", "/api/users", 1_000_000);
+
+        assertEquals(12, visitService.getVisitCount("GET", "/api/users"));
+
+        visitService.flush();
+
+        assertEquals(12, visitService.getVisitCount("GET", "/api/users"));
+
+        visitService.recordVisit("GET", "/api/users", 1_000_000);
+
+        assertEquals(13, visitService.getVisitCount("GET", "/api/users"));
+        verify(visitStatRepository, times(1)).findAll();
+    }
+}